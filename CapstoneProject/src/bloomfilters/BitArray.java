@@ -0,0 +1,68 @@
+package bloomfilters;
+
+/**
+ * Bit packed array used as the storage of a plain bloom filter. Each long
+ * holds 64 filter bits.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class BitArray {
+
+	/** Bits used by one filter slot */
+	public static final int BITS_PER_SLOT = 1;
+
+	/** Bits held by one 64 byte cache line */
+	public static final int SLOTS_PER_CACHE_LINE = 512;
+
+	/** Words holding the bits */
+	private long[] words;
+
+	/** Number of bits in the array */
+	private int size;
+
+	/**
+	 * Creates bit array with all bits set to 0
+	 *
+	 * @param size number of bits
+	 */
+	public BitArray(int size) {
+		this.size = size;
+		this.words = new long[(size + 63) >>> 6];
+	}
+
+	/**
+	 * Sets the bit at index to 1
+	 *
+	 * @param index of the bit
+	 */
+	public void set(int index) {
+		words[index >>> 6] |= 1L << index;
+	}
+
+	/**
+	 * Checks the bit at index
+	 *
+	 * @param index of the bit
+	 * @return true if bit is 1
+	 */
+	public boolean get(int index) {
+		return (words[index >>> 6] & (1L << index)) != 0;
+	}
+
+	/**
+	 * Get the number of bits
+	 * @return size of the array
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get the memory used by the bits
+	 * @return bytes used
+	 */
+	public long sizeInBytes() {
+		return 8L * words.length;
+	}
+}
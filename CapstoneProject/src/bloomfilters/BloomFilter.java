@@ -5,7 +5,11 @@ import java.util.List;
 import java.util.Random;
 
 import simulation.Block;
+import simulation.BlockDictionary;
+import simulation.BlockedHashFamily;
 import simulation.Client;
+import simulation.HashFamily;
+import simulation.LegacyHashFamily;
 import simulation.Server;
 
 /**
@@ -24,6 +28,9 @@ public class BloomFilter {
 	/** Size of bloom filter */
 	protected int bloomFilterSize;
 	
+	/** Number of hash functions of bloom filter */
+	protected int hashCount;
+	
 	/** Cache size of server */
 	protected int serverCacheSize;
 	
@@ -39,6 +46,27 @@ public class BloomFilter {
 	/** False positive count during the experiment */
 	protected long falsePositive;
 	
+	/** Probes of data not present in the probed cache */
+	protected long negativeProbes;
+	
+	/** Hash family used by client/server bloom filters */
+	protected HashFamily hashFamily;
+	
+	/** Whether k indices of a data are placed in one cache line */
+	protected boolean blocked;
+	
+	/** Bloom filter probes of the timed probe passes */
+	protected long probes;
+	
+	/** Time spent in the timed probe passes in nanoseconds */
+	protected long probeNanos;
+	
+	/** Positive answers of the timed probe passes, keeps the probes live */
+	protected long timedPositives;
+	
+	/** Random stream choosing the probed clients */
+	protected Random random;
+	
 	/** 
 	 * Create object for executing bloom filter algorithm
 	 * 
@@ -47,6 +75,59 @@ public class BloomFilter {
 	public BloomFilter(int nClients) {
 		this.nClients = nClients;
 		this.falsePositive = 0;
+		this.hashCount = HashFamily.DEFAULT_HASH_COUNT;
+		this.hashFamily = new LegacyHashFamily();
+	}
+	
+	/**
+	 * Set the random stream choosing the clients probed for each request.
+	 * Must be set before executing the experiment.
+	 * 
+	 * @param random seeded random stream
+	 */
+	public void setRandom(Random random) {
+		this.random = random;
+	}
+	
+	/**
+	 * Set the hash family used by the bloom filters of clients and server
+	 * 
+	 * @param hashFamily hash functions for bloom filter indices
+	 */
+	public void setHashFamily(HashFamily hashFamily) {
+		this.hashFamily = hashFamily;
+	}
+	
+	/**
+	 * Switch the bloom filters of clients and server to blocked layout where
+	 * all k indices of a data fall in one cache line
+	 * 
+	 * @param blocked true for blocked layout, false for classic layout
+	 */
+	public void setBlocked(boolean blocked) {
+		this.blocked = blocked;
+	}
+	
+	/**
+	 * Get the hash family for the bloom filter storage according to layout
+	 * 
+	 * @param slotsPerCacheLine filter slots held by one cache line
+	 * @return hash family for the filters
+	 */
+	protected HashFamily getFilterHashFamily(int slotsPerCacheLine) {
+		if(blocked) {
+			return new BlockedHashFamily(hashFamily, slotsPerCacheLine);
+		}
+		return hashFamily;
+	}
+
+	/**
+	 * Get the bits used by one slot of the bloom filter
+	 * 
+	 * @return bits per slot
+	 */
+	public int getBitsPerSlot() {
+		return BitArray.BITS_PER_SLOT;
 	}
 
 	/**
@@ -61,10 +142,29 @@ public class BloomFilter {
 	 */
 	public BloomFilter setupParameters(int clientCacheSize, int serverCacheSize,
 			int serverDiskSize, int bloomFilterSize) {
+		return setupParameters(clientCacheSize, serverCacheSize, 
+				serverDiskSize, new FilterSizing(bloomFilterSize,
+						HashFamily.DEFAULT_HASH_COUNT));
+	}
+	
+	/**
+	 * Setup the experiment parameters with bloom filter size and number of
+	 * hash functions given by the sizing.
+	 * 
+	 * @param clientCacheSize cache size of each client
+	 * @param serverCacheSize cache size of server
+	 * @param serverDiskSize disk size of server
+	 * @param sizing bloom filter size and hash functions of client/server
+	 * 
+	 * @return Bloom Filter object
+	 */
+	public BloomFilter setupParameters(int clientCacheSize, int serverCacheSize,
+			int serverDiskSize, FilterSizing sizing) {
 		this.clientCacheSize = clientCacheSize;
 		this.serverCacheSize = serverCacheSize;
 		this.serverDiskSize = serverDiskSize;
-		this.bloomFilterSize = bloomFilterSize;
+		this.bloomFilterSize = sizing.getBloomFilterSize();
+		this.hashCount = sizing.getHashCount();
 		return this;
 	}
 	
@@ -78,12 +178,15 @@ public class BloomFilter {
 	public void warmup(Block[][] clientCaches, Block[] serverCache,
 			Block[] serverDisk) {
 		clients = new Client[nClients];
+		HashFamily filterHashFamily = 
+				getFilterHashFamily(BitArray.SLOTS_PER_CACHE_LINE);
 		server = new ServerWithBF(serverCacheSize, bloomFilterSize,
-				serverDiskSize, 1);
+				serverDiskSize, 1, hashCount, filterHashFamily);
 		server.cacheWarmUp(serverCache);
 		server.diskWarmUp(serverDisk);
 		for (int i = 0; i < nClients; i++) {
-			clients[i] = new ClientWithBF(clientCacheSize, bloomFilterSize, i);
+			clients[i] = new ClientWithBF(clientCacheSize, bloomFilterSize, i,
+					hashCount, filterHashFamily);
 			clients[i].cacheWarmUp(clientCaches[i]);
 		}
 	}
@@ -95,14 +198,19 @@ public class BloomFilter {
 	 * bloom filter returns true but data not present in client cache means
 	 * increment false positive count and forward that query to another client.
 	 *  
-	 * @param requests List of requests
+	 * @param requests block ids of requests
+	 * @param dictionary dictionary mapping the ids to data hashed by filters
 	 * 
 	 * @return false positive count
 	 */
-	public long executeExperiment(List<String> requests) {
-		Random random = new Random();
+	public long executeExperiment(int[] requests, BlockDictionary dictionary) {
+		if(random == null) {
+			throw new IllegalStateException("Random stream of the bloom filter"
+					+ " experiment is not set");
+		}
 		// for each request
-		for(String request : requests) {
+		for(int id : requests) {
+			String request = dictionary.decode(id);
 			List<Integer> coveredClients = new ArrayList<Integer>();
 			// check in all the clients
 			while(coveredClients.size() != nClients) {
@@ -113,11 +221,14 @@ public class BloomFilter {
 				if(!coveredClients.contains(clientIndex)) {
 					// check bloom filter
 					if(clients[clientIndex].hasMember(request)) {
-						if(clients[clientIndex].cacheLookup(request) == -1) {
+						if(clients[clientIndex].cacheLookup(id) == -1) {
 							falsePositive += 1;
+							negativeProbes += 1;
 						} else {
 							break;
 						}
+					} else {
+						negativeProbes += 1;
 					}
 					coveredClients.add(clientIndex);
 				}
@@ -125,19 +236,107 @@ public class BloomFilter {
 			// check server
 			if(coveredClients.size() == nClients) {
 				if(server.isMember(request)) {
-					if(server.cacheLookup(request) == -1) {
+					if(server.cacheLookup(id) == -1) {
 						falsePositive += 1;
+						negativeProbes += 1;
 					}
+				} else {
+					negativeProbes += 1;
 				}
 			}
 		}
+		timeProbes(requests, dictionary);
 		return falsePositive;
 	}
 	
 	/**
-	 * Resets the false positive count to 0
+	 * Probes the bloom filter of every client and of the server with all the
+	 * requests, timing only the probes. Requests are decoded before the 
+	 * clock starts and each filter is timed over the whole pass, as a clock
+	 * call per probe would cost as much as the probe itself.
+	 * 
+	 * @param requests block ids of requests
+	 * @param dictionary dictionary mapping the ids to data hashed by filters
+	 */
+	protected void timeProbes(int[] requests, BlockDictionary dictionary) {
+		String[] keys = new String[requests.length];
+		for(int i = 0; i < requests.length; i++) {
+			keys[i] = dictionary.decode(requests[i]);
+		}
+		long positives = 0;
+		for(Client client : clients) {
+			long start = System.nanoTime();
+			for(String key : keys) {
+				if(client.hasMember(key)) {
+					positives += 1;
+				}
+			}
+			probeNanos += System.nanoTime() - start;
+		}
+		long start = System.nanoTime();
+		for(String key : keys) {
+			if(server.isMember(key)) {
+				positives += 1;
+			}
+		}
+		probeNanos += System.nanoTime() - start;
+		probes += (long) keys.length * (clients.length + 1);
+		timedPositives += positives;
+	}
+	
+	/**
+	 * Get the bloom filter probes per second of the timed probe passes
+	 * 
+	 * @return probe throughput
+	 */
+	public double getProbeThroughput() {
+		if(probeNanos == 0) {
+			return 0.0;
+		}
+		return (double) probes * 1e9 / (double) probeNanos;
+	}
+	
+	/**
+	 * Get the size of client/server bloom filter
+	 * 
+	 * @return bloom filter size
+	 */
+	public int getBloomFilterSize() {
+		return bloomFilterSize;
+	}
+	
+	/**
+	 * Get the expected false positive rate of a client bloom filter holding
+	 * the whole client cache
+	 * 
+	 * @return false positive rate
+	 */
+	public double getExpectedFalsePositiveRate() {
+		return new FilterSizing(bloomFilterSize, hashCount)
+				.getExpectedFalsePositiveRate(clientCacheSize);
+	}
+	
+	/**
+	 * Get the false positive rate achieved during the experiment, that is the
+	 * fraction of probes of absent data answered positive
+	 * 
+	 * @return false positive rate
+	 */
+	public double getFalsePositiveRate() {
+		if(negativeProbes == 0) {
+			return 0.0;
+		}
+		return (double) falsePositive / (double) negativeProbes;
+	}
+	
+	/**
+	 * Resets the false positive count and probe statistics to 0
 	 */
 	public void resetFalsePositive() {
 		this.falsePositive = 0;
+		this.negativeProbes = 0;
+		this.probes = 0;
+		this.probeNanos = 0;
+		this.timedPositives = 0;
 	}
 }
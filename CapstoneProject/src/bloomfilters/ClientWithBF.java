@@ -1,10 +1,9 @@
 package bloomfilters;
 
-import java.math.BigInteger;
 
 import simulation.Block;
 import simulation.Client;
-import simulation.DataHash;
+import simulation.HashFamily;
 
 /**
  * Subclass of Client class with the bloom filter component
@@ -14,22 +13,33 @@ import simulation.DataHash;
  */
 public class ClientWithBF extends Client {
 
-	/** Array representing bloom filter */
-	private int[] bloomFilter;
+	/** Bit array representing bloom filter */
+	private BitArray bloomFilter;
 	
 	/** Size of bloom filter */
 	private int bloomFilterSize;
+
+	/** Number of hash functions */
+	private int hashCount;
+
+	/** Hash family used to get the bloom filter indices */
+	private HashFamily hashFamily;
 	
 	
 	/**
 	 * Create Object with cache size and client id
 	 * @param cacheSize
 	 * @param clientId
+	 * @param hashCount number of hash functions
+	 * @param hashFamily hash functions for bloom filter indices
 	 */
-	public ClientWithBF(int cacheSize, int bloomFilterSize, long clientId) {
+	public ClientWithBF(int cacheSize, int bloomFilterSize, long clientId,
+			int hashCount, HashFamily hashFamily) {
 		super(cacheSize, clientId);
-		bloomFilter = new int[bloomFilterSize];
+		bloomFilter = new BitArray(bloomFilterSize);
 		this.bloomFilterSize = bloomFilterSize;
+		this.hashCount = hashCount;
+		this.hashFamily = hashFamily;
 	}
 	
 	/**
@@ -42,7 +52,7 @@ public class ClientWithBF extends Client {
 	public boolean hasMember(String data) {
 		int[] result = getHashIndexes(data);
 		for(int i : result) {
-			if(bloomFilter[i] == 0) {
+			if(!bloomFilter.get(i)) {
 				return false;
 			}
 		}
@@ -58,7 +68,7 @@ public class ClientWithBF extends Client {
 		for(Block block : contents) {
 			int[] indexes = getHashIndexes(block.getData());
 			for(int i : indexes) {
-				bloomFilter[i] = 1;
+				bloomFilter.set(i);
 			}
 		}
 		return true;
@@ -72,17 +82,7 @@ public class ClientWithBF extends Client {
 	 * @return array of indices in bloom filter
 	 */
 	private int[] getHashIndexes(String block) {
-		int[] indexes = new int[5];
-		BigInteger bfSize = 
-				new BigInteger(new Integer(bloomFilterSize).toString());
-		DataHash hash = new DataHash(block);
-		indexes[0] = hash.sha1().mod(bfSize).intValue();
-		indexes[1] =  hash.md5().mod(bfSize).intValue();
-		indexes[2] = hash.sha256().mod(bfSize).intValue();
-		indexes[3] = hash.sha384().mod(bfSize).intValue();
-		indexes[4] = hash.djb2().mod(bfSize).intValue();
-
-		return indexes;
+		return hashFamily.getHashIndexes(block, hashCount, bloomFilterSize);
 	}
 
 }
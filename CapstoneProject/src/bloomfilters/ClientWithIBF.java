@@ -1,13 +1,8 @@
 package bloomfilters;
 
-import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-
 import simulation.Block;
 import simulation.Client;
-import simulation.DataHash;
+import simulation.HashFamily;
 
 /**
  * Subclass of Client class with the importance aware bloom filter component
@@ -17,11 +12,17 @@ import simulation.DataHash;
  */
 public class ClientWithIBF extends Client{
 
-	/** Array representing importance aware bloom filter */
-	private int[] iBloomFilter;
+	/** Packed cells representing importance aware bloom filter */
+	private ImportanceArray iBloomFilter;
 	
 	/** Size of bloom filter */
 	private int bloomFilterSize;
+
+	/** Number of hash functions */
+	private int hashCount;
+
+	/** Hash family used to get the bloom filter indices */
+	private HashFamily hashFamily;
 	
 	/** Importance function criteria */
 	private final int dataSizeLimit = 12;
@@ -29,18 +30,23 @@ public class ClientWithIBF extends Client{
 	/** Maximum value that can be stored in bloom filter */
 	private final int M = 7;
 	
-	/** Random indexes to be decremented by 1 */
+	/** Decrements applied to the bloom filter per insert */
 	private final int P = 10;
 	
 	/**
 	 * Create Object with cache size and client id
 	 * @param cacheSize
 	 * @param clientId
+	 * @param hashCount number of hash functions
+	 * @param hashFamily hash functions for bloom filter indices
 	 */
-	public ClientWithIBF(int cacheSize, int bloomFilterSize, long clientId) {
+	public ClientWithIBF(int cacheSize, int bloomFilterSize, long clientId,
+			int hashCount, HashFamily hashFamily) {
 		super(cacheSize, clientId);
-		iBloomFilter = new int[bloomFilterSize];
+		iBloomFilter = new ImportanceArray(bloomFilterSize);
 		this.bloomFilterSize = bloomFilterSize;
+		this.hashCount = hashCount;
+		this.hashFamily = hashFamily;
 	}
 	
 	/**
@@ -64,7 +70,7 @@ public class ClientWithIBF extends Client{
 	public boolean hasMember(String data) {
 		int[] indexes = getHashIndexes(data);
 		for(int i : indexes) {
-			if(iBloomFilter[i] == 0) {
+			if(iBloomFilter.get(i) == 0) {
 				return false;
 			}
 		}
@@ -73,33 +79,18 @@ public class ClientWithIBF extends Client{
 	
 	/**
 	 * Updates the contents of cache and bloom filter. First checks if the 
-	 * data is already present in cache. If not then decrement values at P
-	 * random indices in bloom filter by 1 and set the k indices to importance
-	 * value returned by importance function
+	 * data is already present in cache. If not then age the bloom filter by
+	 * P decrements, which on average decrements P cells by 1, and set the k
+	 * indices to importance value returned by importance function
 	 * 
 	 * @param block to be updated in cache
 	 */
 	public void updateBF(String block) {
 		if(!hasMember(block)) {
-			List<Integer> pIndexes = new ArrayList<Integer>();
-			while(pIndexes.size() != P) {
-				Random random = new Random();
-				int index = random.nextInt(bloomFilterSize);
-//				if(index < 0)
-//					index *= (-1);
-				if(!pIndexes.contains(index)) {
-					pIndexes.add(index);
-				}
-			}
-			for(int index : pIndexes) {
-				if(iBloomFilter[index] >= 1) {
-					iBloomFilter[index] -= 1;
-				}
-			}
+			iBloomFilter.age(P);
 			int[] indexes = getHashIndexes(block);
 			for(int i : indexes) {
-				if(iBloomFilter[i] < importanceFunction(block))
-					iBloomFilter[i] = importanceFunction(block);
+				iBloomFilter.raise(i, importanceFunction(block));
 			}
 		}
 	}
@@ -112,17 +103,7 @@ public class ClientWithIBF extends Client{
 	 * @return array of indices in bloom filter
 	 */
 	private int[] getHashIndexes(String block) {
-		int[] indexes = new int[5];
-		BigInteger bfSize = 
-				new BigInteger(new Integer(bloomFilterSize).toString());
-		DataHash hash = new DataHash(block);
-		indexes[0] = hash.sha1().mod(bfSize).intValue();
-		indexes[1] =  hash.md5().mod(bfSize).intValue();
-		indexes[2] = hash.sha256().mod(bfSize).intValue();
-		indexes[3] = hash.sha384().mod(bfSize).intValue();
-		indexes[4] = hash.djb2().mod(bfSize).intValue();
-
-		return indexes;
+		return hashFamily.getHashIndexes(block, hashCount, bloomFilterSize);
 	}
 
 	/**
@@ -0,0 +1,260 @@
+package bloomfilters;
+
+import java.util.Random;
+
+import simulation.DoubleHashingFamily;
+import simulation.HashFamily;
+import simulation.Murmur3HashFamily;
+
+/**
+ * Cuckoo filter which stores a short fingerprint of each data in one of two
+ * candidate buckets of four slots. Unlike a bloom filter it supports deletion
+ * without counters. Fingerprints are bit packed so the number of fingerprint
+ * bits can be chosen to match a memory budget.
+ *
+ * The alternate bucket of a fingerprint is (h(fingerprint) - bucket) mod n,
+ * which maps each of the two buckets to the other for any bucket count n.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class CuckooFilter {
+
+	/** Fingerprints stored in one bucket */
+	public static final int SLOTS_PER_BUCKET = 4;
+
+	/** Maximum fraction of slots occupied at capacity */
+	private static final double MAX_LOAD = 0.95;
+
+	/** Maximum relocations tried while inserting */
+	private static final int MAX_KICKS = 500;
+
+	/** Bit packed fingerprints, 0 marks an empty slot */
+	private long[] words;
+
+	/** Bits in one fingerprint */
+	private int fingerprintBits;
+
+	/** Number of buckets */
+	private int buckets;
+
+	/** Hash family used to hash data */
+	private HashFamily hashFamily;
+
+	/** Random generator for relocations */
+	private Random random;
+
+	/** Fingerprint which could not be placed after MAX_KICKS relocations */
+	private int victimFingerprint;
+
+	/** Bucket of the victim fingerprint */
+	private int victimBucket;
+
+	/** Whether the victim fingerprint is stored */
+	private boolean hasVictim;
+
+	/**
+	 * Creates cuckoo filter for the given number of data with a seeded
+	 * random stream for relocations
+	 *
+	 * @param capacity number of data to be stored
+	 * @param fingerprintBits bits in one fingerprint (1 to 16)
+	 * @param hashFamily hash functions used to hash data
+	 * @param random random stream for relocations
+	 */
+	public CuckooFilter(int capacity, int fingerprintBits,
+			HashFamily hashFamily, Random random) {
+		this.buckets = bucketCount(capacity);
+		this.fingerprintBits = fingerprintBits;
+		this.hashFamily = hashFamily;
+		this.random = random;
+		long bits = (long) buckets * SLOTS_PER_BUCKET * fingerprintBits;
+		this.words = new long[(int) ((bits + 63) >>> 6)];
+	}
+
+	/**
+	 * Gets the largest fingerprint size which keeps a filter of given
+	 * capacity within the bit budget. At least 4 bits are used.
+	 *
+	 * @param capacity number of data to be stored
+	 * @param bitBudget bits available for the filter
+	 * @return bits in one fingerprint
+	 */
+	public static int fingerprintBits(int capacity, long bitBudget) {
+		long slots = (long) bucketCount(capacity) * SLOTS_PER_BUCKET;
+		return (int) Math.max(4, Math.min(16, bitBudget / slots));
+	}
+
+	/**
+	 * Inserts the fingerprint of data
+	 *
+	 * @param data to be inserted
+	 * @return false if filter is full
+	 */
+	public boolean add(String data) {
+		long hash = hashFamily.hash64(data);
+		int fingerprint = fingerprint(hash);
+		int bucket = DoubleHashingFamily.reduce((int) hash, buckets);
+		if(insert(bucket, fingerprint)
+				|| insert(alternate(bucket, fingerprint), fingerprint)) {
+			return true;
+		}
+		if(hasVictim) {
+			return false;
+		}
+		if(random.nextBoolean()) {
+			bucket = alternate(bucket, fingerprint);
+		}
+		return relocate(bucket, fingerprint);
+	}
+
+	/**
+	 * Checks if the fingerprint of data is present in either bucket
+	 *
+	 * @param data query to fired
+	 * @return true if data may be present
+	 */
+	public boolean contains(String data) {
+		long hash = hashFamily.hash64(data);
+		int fingerprint = fingerprint(hash);
+		int bucket = DoubleHashingFamily.reduce((int) hash, buckets);
+		int other = alternate(bucket, fingerprint);
+		if(hasVictim && victimFingerprint == fingerprint
+				&& (victimBucket == bucket || victimBucket == other)) {
+			return true;
+		}
+		return find(bucket, fingerprint) != -1
+				|| find(other, fingerprint) != -1;
+	}
+
+	/**
+	 * Removes one fingerprint of data
+	 *
+	 * @param data to be removed
+	 * @return true if a fingerprint was removed
+	 */
+	public boolean delete(String data) {
+		long hash = hashFamily.hash64(data);
+		int fingerprint = fingerprint(hash);
+		int bucket = DoubleHashingFamily.reduce((int) hash, buckets);
+		int other = alternate(bucket, fingerprint);
+		if(hasVictim && victimFingerprint == fingerprint
+				&& (victimBucket == bucket || victimBucket == other)) {
+			hasVictim = false;
+			return true;
+		}
+		int slot = find(bucket, fingerprint);
+		if(slot == -1) {
+			slot = find(other, fingerprint);
+		}
+		if(slot == -1) {
+			return false;
+		}
+		setSlot(slot, 0);
+		// a slot is free again so try placing the victim
+		if(hasVictim) {
+			hasVictim = false;
+			if(!insert(victimBucket, victimFingerprint)) {
+				relocate(victimBucket, victimFingerprint);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Get the memory used by the fingerprints
+	 * @return bytes used
+	 */
+	public long sizeInBytes() {
+		return 8L * words.length;
+	}
+
+	/**
+	 * Moves fingerprints between their buckets until an empty slot is found.
+	 * The last displaced fingerprint is kept as victim.
+	 */
+	private boolean relocate(int bucket, int fingerprint) {
+		for(int kick = 0; kick < MAX_KICKS; kick++) {
+			int slot = bucket * SLOTS_PER_BUCKET
+					+ random.nextInt(SLOTS_PER_BUCKET);
+			int displaced = getSlot(slot);
+			setSlot(slot, fingerprint);
+			fingerprint = displaced;
+			bucket = alternate(bucket, fingerprint);
+			if(insert(bucket, fingerprint)) {
+				return true;
+			}
+		}
+		victimBucket = bucket;
+		victimFingerprint = fingerprint;
+		hasVictim = true;
+		return true;
+	}
+
+	/**
+	 * Puts fingerprint in an empty slot of bucket
+	 */
+	private boolean insert(int bucket, int fingerprint) {
+		int slot = find(bucket, 0);
+		if(slot == -1) {
+			return false;
+		}
+		setSlot(slot, fingerprint);
+		return true;
+	}
+
+	/**
+	 * Gets the slot of bucket holding fingerprint or -1
+	 */
+	private int find(int bucket, int fingerprint) {
+		int start = bucket * SLOTS_PER_BUCKET;
+		for(int slot = start; slot < start + SLOTS_PER_BUCKET; slot++) {
+			if(getSlot(slot) == fingerprint) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	private int alternate(int bucket, int fingerprint) {
+		int offset = DoubleHashingFamily.reduce(
+				(int) Murmur3HashFamily.fmix64(fingerprint), buckets);
+		int other = offset - bucket;
+		return (other < 0) ? other + buckets : other;
+	}
+
+	private int fingerprint(long hash) {
+		int fingerprint = (int) (hash >>> (64 - fingerprintBits));
+		return (fingerprint == 0) ? 1 : fingerprint;
+	}
+
+	private int getSlot(int slot) {
+		long bit = (long) slot * fingerprintBits;
+		int word = (int) (bit >>> 6);
+		int offset = (int) (bit & 63);
+		long value = words[word] >>> offset;
+		if(offset + fingerprintBits > 64) {
+			value |= words[word + 1] << (64 - offset);
+		}
+		return (int) (value & ((1L << fingerprintBits) - 1));
+	}
+
+	private void setSlot(int slot, int fingerprint) {
+		long mask = (1L << fingerprintBits) - 1;
+		long bit = (long) slot * fingerprintBits;
+		int word = (int) (bit >>> 6);
+		int offset = (int) (bit & 63);
+		words[word] = (words[word] & ~(mask << offset))
+				| ((long) fingerprint << offset);
+		if(offset + fingerprintBits > 64) {
+			int shift = 64 - offset;
+			words[word + 1] = (words[word + 1] & ~(mask >>> shift))
+					| ((long) fingerprint >>> shift);
+		}
+	}
+
+	private static int bucketCount(int capacity) {
+		return Math.max(1, (int) Math.ceil(capacity
+				/ (SLOTS_PER_BUCKET * MAX_LOAD)));
+	}
+}
@@ -0,0 +1,100 @@
+package bloomfilters;
+
+import simulation.HashFamily;
+
+/**
+ * Size m and number of hash functions k of a bloom filter. Instead of a fixed
+ * size and k the sizing can be derived from a target false positive rate or
+ * from a memory budget for the expected number of elements n, using the
+ * optimal m = -n ln(p) / ln(2)^2 and k = (m / n) ln(2).
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class FilterSizing {
+
+	/** Upper bound on number of hash functions */
+	public static final int MAX_HASH_COUNT = 16;
+
+	/** Number of slots in the filter */
+	private int bloomFilterSize;
+
+	/** Number of hash functions */
+	private int hashCount;
+
+	/**
+	 * Creates sizing with given filter size and number of hash functions
+	 *
+	 * @param bloomFilterSize number of slots
+	 * @param hashCount number of hash functions
+	 */
+	public FilterSizing(int bloomFilterSize, int hashCount) {
+		this.bloomFilterSize = bloomFilterSize;
+		this.hashCount = hashCount;
+	}
+
+	/**
+	 * Chooses the sizing of a filter for expected elements. If a target false
+	 * positive rate is given the filter is sized for it, but not larger than
+	 * the memory budget if one is given. With only a memory budget the
+	 * filter takes the whole budget. Otherwise the default size is used with
+	 * the default number of hash functions.
+	 *
+	 * @param expectedElements expected number of elements in the filter
+	 * @param bitsPerSlot bits used by one slot of the filter
+	 * @param targetFalsePositiveRate target rate, 0 if not given
+	 * @param memoryBudget memory budget of the filter in bytes, 0 if not given
+	 * @param defaultSize filter size used if neither is given
+	 * @return filter sizing
+	 */
+	public static FilterSizing create(int expectedElements, int bitsPerSlot,
+			double targetFalsePositiveRate, long memoryBudget,
+			int defaultSize) {
+		int n = Math.max(1, expectedElements);
+		long size;
+		if(targetFalsePositiveRate > 0.0) {
+			size = (long) Math.ceil(-n * Math.log(targetFalsePositiveRate)
+					/ (Math.log(2) * Math.log(2)));
+			if(memoryBudget > 0) {
+				size = Math.min(size, memoryBudget * 8 / bitsPerSlot);
+			}
+		} else if(memoryBudget > 0) {
+			size = memoryBudget * 8 / bitsPerSlot;
+		} else {
+			return new FilterSizing(defaultSize,
+					HashFamily.DEFAULT_HASH_COUNT);
+		}
+		size = Math.max(1, Math.min(Integer.MAX_VALUE, size));
+		int hashCount = (int) Math.round((double) size / n * Math.log(2));
+		hashCount = Math.max(1, Math.min(MAX_HASH_COUNT, hashCount));
+		return new FilterSizing((int) size, hashCount);
+	}
+
+	/**
+	 * Get the expected false positive rate (1 - e^(-kn/m))^k of the filter
+	 * holding given number of elements
+	 *
+	 * @param elements number of elements in the filter
+	 * @return false positive rate
+	 */
+	public double getExpectedFalsePositiveRate(int elements) {
+		return Math.pow(1.0 - Math.exp(-(double) hashCount * elements
+				/ bloomFilterSize), hashCount);
+	}
+
+	/**
+	 * Get the number of slots in the filter
+	 * @return filter size
+	 */
+	public int getBloomFilterSize() {
+		return bloomFilterSize;
+	}
+
+	/**
+	 * Get the number of hash functions
+	 * @return k
+	 */
+	public int getHashCount() {
+		return hashCount;
+	}
+}
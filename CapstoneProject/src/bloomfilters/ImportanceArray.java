@@ -0,0 +1,152 @@
+package bloomfilters;
+
+/**
+ * Packed array of 3 bit cells used as the storage of an importance aware
+ * bloom filter. Each long holds 21 cells so importance values from 0 to
+ * MAX_VALUE can be stored in about a tenth of the memory of an int array.
+ *
+ * Instead of decrementing P cells on every insert the array keeps a global
+ * decay clock. Every time the clock has advanced by the array size each cell
+ * is due one decrement, which is the same rate as decrementing P randomly
+ * selected cells per insert. The decay is applied lazily to one cache line of
+ * cells when it is next read or written, so aging costs O(1) per insert.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class ImportanceArray {
+
+	/** Maximum value of a cell */
+	public static final int MAX_VALUE = 7;
+
+	/** Bits used by one cell */
+	public static final int BITS_PER_SLOT = 3;
+
+	/** Cells stored in one word */
+	private static final int CELLS_PER_WORD = 21;
+
+	/** Words in one 64 byte cache line */
+	private static final int WORDS_PER_CACHE_LINE = 8;
+
+	/** Cells held by one 64 byte cache line */
+	public static final int SLOTS_PER_CACHE_LINE =
+			WORDS_PER_CACHE_LINE * CELLS_PER_WORD;
+
+	/** Mask with the lowest bit of every cell of a word set */
+	private static final long LOW_BITS = 0x1249249249249249L;
+
+	/** Words holding the cells */
+	private long[] words;
+
+	/** Number of cells in the array */
+	private int size;
+
+	/** Total decrements requested so far */
+	private long decayClock;
+
+	/** Decrements due to every cell so far */
+	private int epoch;
+
+	/** Epoch up to which decay is applied to each cache line of cells */
+	private int[] lineEpochs;
+
+	/**
+	 * Creates importance array with all cells set to 0
+	 *
+	 * @param size number of cells
+	 */
+	public ImportanceArray(int size) {
+		this.size = size;
+		this.words = new long[(size + CELLS_PER_WORD - 1) / CELLS_PER_WORD];
+		this.lineEpochs = new int[(words.length + WORDS_PER_CACHE_LINE - 1)
+				/ WORDS_PER_CACHE_LINE];
+	}
+
+	/**
+	 * Get the value of cell at index after applying pending decay
+	 *
+	 * @param index of the cell
+	 * @return importance value
+	 */
+	public int get(int index) {
+		int value = (int) (words[index / CELLS_PER_WORD]
+				>>> (3 * (index % CELLS_PER_WORD))) & MAX_VALUE;
+		int pending = epoch - lineEpochs[index / SLOTS_PER_CACHE_LINE];
+		return (pending >= value) ? 0 : value - pending;
+	}
+
+	/**
+	 * Set the value of cell at index
+	 *
+	 * @param index of the cell
+	 * @param value importance value from 0 to MAX_VALUE
+	 */
+	public void set(int index, int value) {
+		applyDecay(index / SLOTS_PER_CACHE_LINE);
+		int shift = 3 * (index % CELLS_PER_WORD);
+		int word = index / CELLS_PER_WORD;
+		words[word] = (words[word] & ~((long) MAX_VALUE << shift))
+				| ((long) value << shift);
+	}
+
+	/**
+	 * Raise the cell at index to the importance value if it is lower
+	 *
+	 * @param index of the cell
+	 * @param value importance value from 0 to MAX_VALUE
+	 */
+	public void raise(int index, int value) {
+		if(get(index) < value) {
+			set(index, value);
+		}
+	}
+
+	/**
+	 * Age the array by p decrements, equivalent on average to decrementing p
+	 * cells by 1. Cells are decremented lazily when next accessed.
+	 *
+	 * @param p number of decrements
+	 */
+	public void age(int p) {
+		decayClock += p;
+		epoch = (int) (decayClock / size);
+	}
+
+	/**
+	 * Applies the pending decay to all the cells of a cache line. Non zero
+	 * cells of a word are decremented together.
+	 */
+	private void applyDecay(int line) {
+		int pending = Math.min(epoch - lineEpochs[line], MAX_VALUE);
+		if(pending > 0) {
+			int end = Math.min(words.length,
+					(line + 1) * WORDS_PER_CACHE_LINE);
+			for(int word = line * WORDS_PER_CACHE_LINE; word < end; word++) {
+				long value = words[word];
+				for(int i = 0; i < pending && value != 0; i++) {
+					// lowest bit of every non zero cell
+					value -= (value | (value >>> 1) | (value >>> 2))
+							& LOW_BITS;
+				}
+				words[word] = value;
+			}
+		}
+		lineEpochs[line] = epoch;
+	}
+
+	/**
+	 * Get the number of cells
+	 * @return size of the array
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get the memory used by the cells
+	 * @return bytes used
+	 */
+	public long sizeInBytes() {
+		return 8L * words.length + 4L * lineEpochs.length;
+	}
+}
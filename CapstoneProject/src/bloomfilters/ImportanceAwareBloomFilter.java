@@ -2,6 +2,7 @@ package bloomfilters;
 
 import simulation.Block;
 import simulation.Client;
+import simulation.HashFamily;
 
 /**
  * Implements the importance aware bloom filter
@@ -20,6 +21,15 @@ public class ImportanceAwareBloomFilter extends BloomFilter {
 		clients = new ClientWithIBF[nClients];
 	}
 	
+	/**
+	 * Get the bits used by one cell of the importance aware bloom filter
+	 * 
+	 * @return bits per slot
+	 */
+	public int getBitsPerSlot() {
+		return ImportanceArray.BITS_PER_SLOT;
+	}
+	
 	/**
 	 * Fill the clients/server cache and disk before executing the experiment
 	 * 
@@ -30,13 +40,16 @@ public class ImportanceAwareBloomFilter extends BloomFilter {
 	public void warmup(Block[][] clientCaches, Block[] serverCache,
 			Block[] serverDisk) {
 		clients = new Client[nClients];
+		HashFamily filterHashFamily = 
+				getFilterHashFamily(ImportanceArray.SLOTS_PER_CACHE_LINE);
 		server = new ServerWithIBF(serverCacheSize, bloomFilterSize,
-				serverDiskSize, 1);
+				serverDiskSize, 1, hashCount, filterHashFamily);
 		server.cacheWarmUp(serverCache);
 		server.diskWarmUp(serverDisk);
 		
 		for(int i = 0; i < nClients; i++) {
-			clients[i] = new ClientWithIBF(clientCacheSize, bloomFilterSize, i);
+			clients[i] = new ClientWithIBF(clientCacheSize, bloomFilterSize, i,
+					hashCount, filterHashFamily);
 			clients[i].cacheWarmUp(clientCaches[i]);
 		}
 	}
@@ -0,0 +1,85 @@
+package bloomfilters;
+
+/**
+ * Packed array of 4 bit counters used as the storage of a counting bloom
+ * filter. Each long holds 16 counters. Counters saturate at MAX_VALUE on
+ * increment and at 0 on decrement.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class NibbleCounterArray {
+
+	/** Maximum value of a counter */
+	public static final int MAX_VALUE = 15;
+
+	/** Bits used by one counter */
+	public static final int BITS_PER_SLOT = 4;
+
+	/** Counters held by one 64 byte cache line */
+	public static final int SLOTS_PER_CACHE_LINE = 128;
+
+	/** Words holding the counters */
+	private long[] words;
+
+	/** Number of counters in the array */
+	private int size;
+
+	/**
+	 * Creates counter array with all counters set to 0
+	 *
+	 * @param size number of counters
+	 */
+	public NibbleCounterArray(int size) {
+		this.size = size;
+		this.words = new long[(size + 15) >>> 4];
+	}
+
+	/**
+	 * Get the counter at index
+	 *
+	 * @param index of the counter
+	 * @return counter value
+	 */
+	public int get(int index) {
+		return (int) (words[index >>> 4] >>> ((index & 15) << 2)) & 0xF;
+	}
+
+	/**
+	 * Increments the counter at index unless it is already at MAX_VALUE
+	 *
+	 * @param index of the counter
+	 */
+	public void increment(int index) {
+		if(get(index) < MAX_VALUE) {
+			words[index >>> 4] += 1L << ((index & 15) << 2);
+		}
+	}
+
+	/**
+	 * Decrements the counter at index unless it is already 0
+	 *
+	 * @param index of the counter
+	 */
+	public void decrement(int index) {
+		if(get(index) > 0) {
+			words[index >>> 4] -= 1L << ((index & 15) << 2);
+		}
+	}
+
+	/**
+	 * Get the number of counters
+	 * @return size of the array
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get the memory used by the counters
+	 * @return bytes used
+	 */
+	public long sizeInBytes() {
+		return 8L * words.length;
+	}
+}
@@ -0,0 +1,175 @@
+package bloomfilters;
+
+import simulation.DoubleHashingFamily;
+import simulation.Murmur3HashFamily;
+
+/**
+ * Static membership filter over a fixed set of 64 bit keys based on the
+ * standard ribbon construction. Every key maps to a start row and a 64 bit
+ * coefficient band. The filter is the solution of the linear system over
+ * GF(2) in which the band of each key multiplied with the solution gives an
+ * 8 bit fingerprint of the key. The system is solved once at construction by
+ * banding followed by back substitution and the filter is immutable
+ * afterwards.
+ *
+ * With the rows only 6 to 10 percent more than the keys the filter uses
+ * about 8.5 to 9 bits per key for a false positive rate of 1/256.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class RibbonFilter {
+
+	/** Width of the coefficient band */
+	private static final int BAND_WIDTH = 64;
+
+	/** Bits in a fingerprint */
+	private static final int FINGERPRINT_BITS = 8;
+
+	/** Extra rows as fraction of keys */
+	private static final double OVERHEAD = 0.06;
+
+	/** Increase of the overhead when the system could not be solved */
+	private static final double OVERHEAD_STEP = 0.02;
+
+	/** Seeds tried before the overhead is raised */
+	private static final int SEEDS_PER_OVERHEAD = 4;
+
+	/** Odd constant used to derive the seeds */
+	private static final long SEED_STEP = 0x9e3779b97f4a7c15L;
+
+	/** Number of rows of the solution */
+	private int rows;
+
+	/** Seed with which the system could be solved */
+	private long seed;
+
+	/** Solution stored column wise, one bit vector per fingerprint bit */
+	private long[][] columns;
+
+	/**
+	 * Builds the filter for the given keys. Duplicate keys are allowed.
+	 *
+	 * @param keys 64 bit hashes of the members
+	 */
+	public RibbonFilter(long[] keys) {
+		double overhead = OVERHEAD;
+		for(int attempt = 0; ; attempt++) {
+			if(attempt > 0 && attempt % SEEDS_PER_OVERHEAD == 0) {
+				overhead += OVERHEAD_STEP;
+			}
+			rows = Math.max((int) Math.ceil(keys.length * (1.0 + overhead)),
+					keys.length + BAND_WIDTH);
+			seed = SEED_STEP * (attempt + 1);
+			if(build(keys)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Checks if the key may be a member. Keys used to build the filter are
+	 * always found.
+	 *
+	 * @param key 64 bit hash of the data
+	 * @return false if the key is definitely not a member
+	 */
+	public boolean contains(long key) {
+		long hash = Murmur3HashFamily.fmix64(key ^ seed);
+		int start = startRow(hash);
+		long coefficients = coefficients(hash);
+		int fingerprint = fingerprint(hash);
+		for(int bit = 0; bit < FINGERPRINT_BITS; bit++) {
+			long window = window(columns[bit], start);
+			int parity = Long.bitCount(coefficients & window) & 1;
+			if(parity != ((fingerprint >>> bit) & 1)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Get the memory used by the solution
+	 * @return bytes used
+	 */
+	public long sizeInBytes() {
+		return 8L * FINGERPRINT_BITS * columns[0].length;
+	}
+
+	/**
+	 * Bands the keys into an upper triangular system and solves it.
+	 *
+	 * @return false if the keys are linearly dependent for this seed
+	 */
+	private boolean build(long[] keys) {
+		long[] bandCoefficients = new long[rows];
+		byte[] bandResults = new byte[rows];
+		for(long key : keys) {
+			long hash = Murmur3HashFamily.fmix64(key ^ seed);
+			int row = startRow(hash);
+			long coefficients = coefficients(hash);
+			int result = fingerprint(hash);
+			while(true) {
+				if(bandCoefficients[row] == 0) {
+					bandCoefficients[row] = coefficients;
+					bandResults[row] = (byte) result;
+					break;
+				}
+				coefficients ^= bandCoefficients[row];
+				result ^= bandResults[row] & 0xFF;
+				if(coefficients == 0) {
+					if(result != 0) {
+						return false;
+					}
+					// same equation as an earlier key
+					break;
+				}
+				int shift = Long.numberOfTrailingZeros(coefficients);
+				coefficients >>>= shift;
+				row += shift;
+			}
+		}
+		columns = new long[FINGERPRINT_BITS][(rows + 63) >>> 6];
+		for(int row = rows - 1; row >= 0; row--) {
+			long coefficients = bandCoefficients[row];
+			if(coefficients == 0) {
+				continue;
+			}
+			int result = bandResults[row] & 0xFF;
+			for(int bit = 0; bit < FINGERPRINT_BITS; bit++) {
+				long window = window(columns[bit], row);
+				int value = ((result >>> bit)
+						^ Long.bitCount(coefficients & window)) & 1;
+				columns[bit][row >>> 6] |= (long) value << (row & 63);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets 64 bits of a column starting at the row, bits past the last row
+	 * are 0
+	 */
+	private static long window(long[] column, int row) {
+		int word = row >>> 6;
+		int offset = row & 63;
+		if(offset == 0 || word + 1 == column.length) {
+			return column[word] >>> offset;
+		}
+		return (column[word] >>> offset) | (column[word + 1] << (64 - offset));
+	}
+
+	private int startRow(long hash) {
+		return DoubleHashingFamily.reduce((int) (hash >>> 32),
+				rows - BAND_WIDTH + 1);
+	}
+
+	private static long coefficients(long hash) {
+		return Murmur3HashFamily.fmix64(hash) | 1L;
+	}
+
+	private static int fingerprint(long hash) {
+		return (int) hash & ((1 << FINGERPRINT_BITS) - 1);
+	}
+}
@@ -1,9 +1,8 @@
 package bloomfilters;
 
-import java.math.BigInteger;
 
 import simulation.Block;
-import simulation.DataHash;
+import simulation.HashFamily;
 import simulation.Server;
 
 /**
@@ -13,11 +12,17 @@ import simulation.Server;
  */
 public class ServerWithBF extends Server{
 
-	/** Array representing bloom filter */
-	private int[] bloomFilter;
+	/** Bit array representing bloom filter */
+	private BitArray bloomFilter;
 	
 	/** Size of bloom filter */
 	private int bloomFilterSize;
+
+	/** Number of hash functions */
+	private int hashCount;
+
+	/** Hash family used to get the bloom filter indices */
+	private HashFamily hashFamily;
 	
 	/**
 	 * Create Object with cache size, disk size and client id
@@ -25,12 +30,16 @@ public class ServerWithBF extends Server{
 	 * @param cacheSize size of cache component
 	 * @param diskSize size of disk component
 	 * @param serverId server id
+	 * @param hashCount number of hash functions
+	 * @param hashFamily hash functions for bloom filter indices
 	 */
 	public ServerWithBF(int cacheSize, int bloomFilterSize,
-			int diskSize, long serverId) {
+			int diskSize, long serverId, int hashCount, HashFamily hashFamily) {
 		super(cacheSize, diskSize, serverId);
-		bloomFilter = new int[bloomFilterSize];
+		bloomFilter = new BitArray(bloomFilterSize);
 		this.bloomFilterSize = bloomFilterSize;
+		this.hashCount = hashCount;
+		this.hashFamily = hashFamily;
 	}
 	
 	/**
@@ -43,7 +52,7 @@ public class ServerWithBF extends Server{
 	public boolean isMember(String data) {
 		int[] result = getHashIndexes(data);
 		for(int i : result) {
-			if(bloomFilter[i] == 0) {
+			if(!bloomFilter.get(i)) {
 				return false;
 			}
 		}
@@ -59,7 +68,7 @@ public class ServerWithBF extends Server{
 		for(Block block : contents) {
 			int[] indexes = getHashIndexes(block.getData());
 			for(int i : indexes) {
-				bloomFilter[i] = 1;
+				bloomFilter.set(i);
 			}
 		}
 		return true;
@@ -73,16 +82,6 @@ public class ServerWithBF extends Server{
 	 * @return array of indices in bloom filter
 	 */
 	private int[] getHashIndexes(String block) {
-		int[] indexes = new int[5];
-		BigInteger bfSize = 
-				new BigInteger(new Integer(bloomFilterSize).toString());
-		DataHash hash = new DataHash(block);
-		indexes[0] = hash.sha1().mod(bfSize).intValue();
-		indexes[1] =  hash.md5().mod(bfSize).intValue();
-		indexes[2] = hash.sha256().mod(bfSize).intValue();
-		indexes[3] = hash.sha384().mod(bfSize).intValue();
-		indexes[4] = hash.djb2().mod(bfSize).intValue();
-
-		return indexes;
+		return hashFamily.getHashIndexes(block, hashCount, bloomFilterSize);
 	}
 }
@@ -1,12 +1,7 @@
 package bloomfilters;
 
-import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-
 import simulation.Block;
-import simulation.DataHash;
+import simulation.HashFamily;
 import simulation.Server;
 
 /**
@@ -15,11 +10,17 @@ import simulation.Server;
  */
 public class ServerWithIBF extends Server {
 
-	/** Array representing importance aware bloom filter */
-	private int[] iBloomFilter;
+	/** Packed cells representing importance aware bloom filter */
+	private ImportanceArray iBloomFilter;
 	
 	/** Size of bloom filter */
 	private int bloomFilterSize;
+
+	/** Number of hash functions */
+	private int hashCount;
+
+	/** Hash family used to get the bloom filter indices */
+	private HashFamily hashFamily;
 	
 	/** Importance function criteria */
 	private final int dataSizeLimit = 10;
@@ -27,7 +28,7 @@ public class ServerWithIBF extends Server {
 	/** Maximum value that can be stored in bloom filter */
 	private final int M = 7;
 	
-	/** Random indexes to be decremented by 1 */
+	/** Decrements applied to the bloom filter per insert */
 	private final int P = 10;
 	
 	/**
@@ -36,12 +37,16 @@ public class ServerWithIBF extends Server {
 	 * @param cacheSize cache component size 
 	 * @param diskSize disk component size
 	 * @param serverId server id
+	 * @param hashCount number of hash functions
+	 * @param hashFamily hash functions for bloom filter indices
 	 */
 	public ServerWithIBF(int cacheSize, int bloomFilterSize,
-			int diskSize, long serverId) {
+			int diskSize, long serverId, int hashCount, HashFamily hashFamily) {
 		super(cacheSize, diskSize, serverId);
-		iBloomFilter = new int[bloomFilterSize];
+		iBloomFilter = new ImportanceArray(bloomFilterSize);
 		this.bloomFilterSize = bloomFilterSize;
+		this.hashCount = hashCount;
+		this.hashFamily = hashFamily;
 	}
 	
 	/**
@@ -65,7 +70,7 @@ public class ServerWithIBF extends Server {
 	public boolean isMember(String data) {
 		int[] indexes = getHashIndexes(data);
 		for(int i : indexes) {
-			if(iBloomFilter[i] == 0) {
+			if(iBloomFilter.get(i) == 0) {
 				return false;
 			}
 		}
@@ -74,35 +79,19 @@ public class ServerWithIBF extends Server {
 	
 	/**
 	 * Updates the contents of cache and bloom filter. First checks if the 
-	 * data is already present in cache. If not then decrement values at P
-	 * random indices in bloom filter by 1 and set the k indices to importance
-	 * value returned by importance function
+	 * data is already present in cache. If not then age the bloom filter by
+	 * P decrements, which on average decrements P cells by 1, and set the k
+	 * indices to importance value returned by importance function
 	 * 
 	 * @param block to be updated in cache
 	 */
 	public void updateBF(String block) {
 		if(!isMember(block)) {
-			List<Integer> pIndexes = new ArrayList<Integer>();
-			// select P random indices
-			while(pIndexes.size() != P) {
-				Random random = new Random();
-				int index = random.nextInt() % bloomFilterSize;
-				if(index < 0)
-					index *= (-1);
-				if(!pIndexes.contains(index)) {
-					pIndexes.add(index);
-				}
-			}
-			// decrement index value by 1
-			for(int index : pIndexes) {
-				if(iBloomFilter[index] >= 1) {
-					iBloomFilter[index] -= 1;
-				}
-			}
+			// decay by P decrements, applied lazily on next access
+			iBloomFilter.age(P);
 			int[] indexes = getHashIndexes(block);
 			for(int i : indexes) {
-				if(iBloomFilter[i] < importanceFunction(block))
-					iBloomFilter[i] = importanceFunction(block);
+				iBloomFilter.raise(i, importanceFunction(block));
 			}
 		}
 	}
@@ -115,17 +104,7 @@ public class ServerWithIBF extends Server {
 	 * @return array of indices in bloom filter
 	 */
 	private int[] getHashIndexes(String block) {
-		int[] indexes = new int[5];
-		BigInteger bfSize = 
-				new BigInteger(new Integer(bloomFilterSize).toString());
-		DataHash hash = new DataHash(block);
-		indexes[0] = hash.sha1().mod(bfSize).intValue();
-		indexes[1] =  hash.md5().mod(bfSize).intValue();
-		indexes[2] = hash.sha256().mod(bfSize).intValue();
-		indexes[3] = hash.sha384().mod(bfSize).intValue();
-		indexes[4] = hash.djb2().mod(bfSize).intValue();
-
-		return indexes;
+		return hashFamily.getHashIndexes(block, hashCount, bloomFilterSize);
 	}
 
 	/**
@@ -0,0 +1,143 @@
+package collaborativecaching;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Random;
+
+import simulation.Block;
+
+/**
+ * Adaptive replacement cache. Blocks referenced once are in T1 and blocks
+ * referenced again are in T2. Data replaced from T1 and T2 is remembered in
+ * the ghost lists B1 and B2, and a reference to ghost data moves the target
+ * size p of T1 towards the list that would have kept it.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class ARCPolicy implements EvictionPolicy {
+
+	/** List of slots in T1 */
+	private static final int T1 = 0;
+
+	/** List of slots in T2 */
+	private static final int T2 = 1;
+
+	/** Slots of T1 and T2 */
+	private RecencyList lists;
+
+	/** Data replaced from T1, oldest first */
+	private LinkedHashSet<Integer> b1;
+
+	/** Data replaced from T2, oldest first */
+	private LinkedHashSet<Integer> b2;
+
+	/** Block id of the data in each slot */
+	private int[] keys;
+
+	/** Number of slots in cache */
+	private int capacity;
+
+	/** Target size of T1 */
+	private int p;
+
+	/**
+	 * Creates ARC policy for a cache
+	 *
+	 * @param capacity number of slots in cache
+	 */
+	public ARCPolicy(int capacity) {
+		this.capacity = capacity;
+		lists = new RecencyList(capacity, 2);
+		b1 = new LinkedHashSet<Integer>();
+		b2 = new LinkedHashSet<Integer>();
+		keys = new int[capacity];
+		Arrays.fill(keys, -1);
+		p = 0;
+	}
+
+	@Override
+	public void warmUp(Block[] contents, Random random) {
+		for(int slot : RecencyList.randomOrder(capacity, random)) {
+			keys[slot] = contents[slot].getId();
+			lists.add(T1, slot);
+		}
+	}
+
+	@Override
+	public void recordAccess(int slot) {
+		if(lists.listOf(slot) == T1) {
+			lists.remove(slot);
+			lists.add(T2, slot);
+		} else {
+			lists.touch(slot);
+		}
+	}
+
+	@Override
+	public int selectVictim(int id) {
+		int t1 = lists.size(T1);
+		if(t1 > 0 && (t1 > p || (t1 == p && b2.contains(id))
+				|| lists.size(T2) == 0)) {
+			return lists.leastRecent(T1);
+		}
+		return lists.leastRecent(T2);
+	}
+
+	@Override
+	public int peekVictim(int id) {
+		return selectVictim(id);
+	}
+
+	@Override
+	public int nextVictim(int slot) {
+		if(slot == -1) {
+			return (lists.size(T1) > 0) ? lists.leastRecent(T1)
+					: lists.leastRecent(T2);
+		}
+		int next = lists.newer(slot);
+		if(next == -1 && lists.listOf(slot) == T1) {
+			return lists.leastRecent(T2);
+		}
+		return next;
+	}
+
+	@Override
+	public void recordInsert(int slot, int id) {
+		if(keys[slot] != -1) {
+			if(lists.listOf(slot) == T1) {
+				b1.add(keys[slot]);
+			} else if(lists.listOf(slot) == T2) {
+				b2.add(keys[slot]);
+			}
+		}
+		lists.remove(slot);
+		keys[slot] = id;
+		if(b1.contains(id)) {
+			p = Math.min(capacity, p + Math.max(1, b2.size() / b1.size()));
+			b1.remove(id);
+			lists.add(T2, slot);
+		} else if(b2.contains(id)) {
+			p = Math.max(0, p - Math.max(1, b1.size() / b2.size()));
+			b2.remove(id);
+			lists.add(T2, slot);
+		} else {
+			lists.add(T1, slot);
+		}
+		// T1 and B1 hold at most c data and all lists at most 2c
+		while(lists.size(T1) + b1.size() > capacity && !b1.isEmpty()) {
+			removeOldest(b1);
+		}
+		while(lists.size(T1) + lists.size(T2) + b1.size() + b2.size()
+				> 2 * capacity) {
+			removeOldest(b2.isEmpty() ? b1 : b2);
+		}
+	}
+
+	private static void removeOldest(LinkedHashSet<Integer> ghosts) {
+		Iterator<Integer> oldest = ghosts.iterator();
+		oldest.next();
+		oldest.remove();
+	}
+}
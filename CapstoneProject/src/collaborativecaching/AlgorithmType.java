@@ -6,8 +6,25 @@ package collaborativecaching;
  * @author Shridhar Bhalekar
  */
 public enum AlgorithmType {
-	GreedyForwarding,
-	NChance,
-	Robinhood,
-	SummaryCache
+	GreedyForwarding("GF"),
+	NChance("NC"),
+	Robinhood("RH"),
+	SummaryCache("SC"),
+	SummaryCacheCuckoo("SCC");
+	
+	/** Prefix of the result columns of this algorithm */
+	private String prefix;
+	
+	private AlgorithmType(String prefix) {
+		this.prefix = prefix;
+	}
+	
+	/**
+	 * Get the prefix of the result columns of this algorithm
+	 * 
+	 * @return column prefix
+	 */
+	public String getPrefix() {
+		return prefix;
+	}
 }
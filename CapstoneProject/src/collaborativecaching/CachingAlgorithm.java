@@ -1,11 +1,18 @@
 package collaborativecaching;
 
-import java.util.List;
 import java.util.Random;
 
 import simulation.Block;
+import simulation.BlockDictionary;
 import simulation.Client;
+import simulation.HashFamily;
+import simulation.RandomStreams;
+import simulation.LegacyHashFamily;
 import simulation.Server;
+import simulation.Storage;
+import simulation.StorageFactory;
+import simulation.StorageType;
+import simulation.WarmupContents;
 
 /**
  * Base class for all cooperative caching algorithms. Implement methods for
@@ -63,6 +70,57 @@ public abstract class CachingAlgorithm {
 	/** Cache Miss ratio per request */
 	protected double cacheMissPerRequest;
 	
+	/** Hash family used by the bloom filters of the algorithm */
+	protected HashFamily hashFamily;
+	
+	/** Whether bloom filters place k indices of a data in one cache line */
+	protected boolean blockedBloomFilter;
+	
+	/** Target false positive rate of bloom filters, 0 for fixed sizes */
+	protected double targetFalsePositiveRate;
+	
+	/** Memory budget of a client bloom filter in bytes, 0 for no budget */
+	protected long filterMemoryBudget;
+	
+	/** Eviction policy of client and server caches */
+	protected EvictionPolicyType evictionPolicyType;
+	
+	/** Whether client caches admit fetched blocks by request frequency */
+	protected boolean admissionFilter;
+	
+	/** Dictionary of block ids shared by clients and server */
+	protected BlockDictionary dictionary;
+	
+	/** Layout of client and server cache slots */
+	protected StorageType storageType;
+	
+	/** Layout of server disk slots */
+	protected StorageType diskStorageType;
+	
+	/** Server disk of the round, cache blocks are taken from its slots */
+	private Storage serverDisk;
+	
+	/** Source of the random streams of the algorithm */
+	protected RandomStreams randomStreams;
+	
+	/** Requests arriving per tick, 0 to serve requests one at a time */
+	protected double arrivalRate;
+	
+	/** Simulator of the last event driven experiment, null if none */
+	protected DiscreteEventSimulator eventSimulator;
+	
+	/** Ticks of the requests served so far */
+	private int ticks;
+	
+	/** Cache miss of the requests served so far */
+	private int cacheMiss;
+	
+	/** Local cache hit of the requests served so far */
+	private int localCacheHit;
+	
+	/** Global cache hit of the requests served so far */
+	private int globalCacheHit;
+	
 
 	/** 
 	 * Create object for executing caching algorithm
@@ -87,8 +145,202 @@ public abstract class CachingAlgorithm {
 		this.cacheReferenceTicks = cacheReferenceTicks;
 		this.diskToCacheTicks = diskToCacheTicks;
 		this.networkHopTicks = networkHopTicks;
+		this.hashFamily = new LegacyHashFamily();
+		this.evictionPolicyType = EvictionPolicyType.LRU;
+		this.storageType = StorageType.ObjectArray;
+		this.diskStorageType = StorageType.ObjectArray;
+	}
+	
+	/**
+	 * Set the hash family used by the bloom filters of the algorithm
+	 * 
+	 * @param hashFamily hash functions for bloom filter indices
+	 */
+	public void setHashFamily(HashFamily hashFamily) {
+		this.hashFamily = hashFamily;
+	}
+	
+	/**
+	 * Switch the bloom filters of the algorithm to blocked layout
+	 * 
+	 * @param blockedBloomFilter true for blocked layout
+	 */
+	public void setBlockedBloomFilter(boolean blockedBloomFilter) {
+		this.blockedBloomFilter = blockedBloomFilter;
 	}
 		
+	/**
+	 * Size the bloom filters of the algorithm from a target false positive
+	 * rate and a per client memory budget instead of fixed sizes
+	 * 
+	 * @param targetFalsePositiveRate target rate, 0 if not given
+	 * @param filterMemoryBudget budget in bytes per client, 0 if not given
+	 */
+	public void setFilterSizing(double targetFalsePositiveRate,
+			long filterMemoryBudget) {
+		this.targetFalsePositiveRate = targetFalsePositiveRate;
+		this.filterMemoryBudget = filterMemoryBudget;
+	}
+	
+	/**
+	 * Set the eviction policy of client and server caches
+	 * 
+	 * @param evictionPolicyType type of eviction policy
+	 */
+	public void setEvictionPolicy(EvictionPolicyType evictionPolicyType) {
+		this.evictionPolicyType = evictionPolicyType;
+	}
+	
+	/**
+	 * Create eviction policy of the algorithm for a cache
+	 * 
+	 * @param capacity number of slots in cache
+	 * @return EvictionPolicy object
+	 */
+	protected EvictionPolicy createEvictionPolicy(int capacity) {
+		return EvictionPolicyFactory.createEvictionPolicy(evictionPolicyType,
+				capacity);
+	}
+	
+	/**
+	 * Switch on the TinyLFU admission filter of client caches
+	 * 
+	 * @param admissionFilter true to admit blocks by request frequency
+	 */
+	public void setAdmissionFilter(boolean admissionFilter) {
+		this.admissionFilter = admissionFilter;
+	}
+	
+	/**
+	 * Set the source of the random streams of clients, server and requests.
+	 * Must be set before the warm up.
+	 * 
+	 * @param randomStreams streams split for this algorithm
+	 */
+	public void setRandomStreams(RandomStreams randomStreams) {
+		this.randomStreams = randomStreams;
+	}
+	
+	/**
+	 * Get the next random stream of the algorithm
+	 * 
+	 * @return seeded random stream
+	 */
+	protected Random nextStream() {
+		if(randomStreams == null) {
+			throw new IllegalStateException("Random streams of the algorithm"
+					+ " are not set");
+		}
+		return randomStreams.nextStream();
+	}
+	
+	/**
+	 * Set the arrival rate of requests. With a positive rate the service 
+	 * traces of the requests, still served one at a time, are queued at the
+	 * clients and server by the discrete event simulator.
+	 * 
+	 * @param arrivalRate requests arriving per tick, 0 for one at a time
+	 */
+	public void setArrivalRate(double arrivalRate) {
+		this.arrivalRate = arrivalRate;
+	}
+	
+	/**
+	 * Set the dictionary mapping data to block ids
+	 * 
+	 * @param dictionary dictionary built when the data was loaded
+	 */
+	public void setDictionary(BlockDictionary dictionary) {
+		this.dictionary = dictionary;
+	}
+	
+	/**
+	 * Set the layout of client and server storage slots
+	 * 
+	 * @param storageType type of cache storage
+	 * @param diskStorageType type of server disk storage
+	 */
+	public void setStorageType(StorageType storageType, 
+			StorageType diskStorageType) {
+		this.storageType = storageType;
+		this.diskStorageType = diskStorageType;
+	}
+	
+	/**
+	 * Create cache storage of the algorithm, taking its blocks from the 
+	 * server disk of the round
+	 * 
+	 * @param type type of storage
+	 * @param storageSize number of slots in storage
+	 * @return Storage object
+	 */
+	protected Storage createStorage(StorageType type, int storageSize) {
+		return StorageFactory.createStorage(type, storageSize, dictionary, 
+				serverDisk);
+	}
+	
+	/**
+	 * Set the storage, eviction policy, admission filter and dictionary of a 
+	 * client cache. Must be called before the client cache warm up.
+	 * 
+	 * @param client client to be set up
+	 */
+	protected void setupClientCache(CachingClient client) {
+		client.setDictionary(dictionary);
+		client.setRandom(nextStream());
+		client.setCacheStorage(createStorage(storageType, clientCacheSize));
+		client.setEvictionPolicy(createEvictionPolicy(clientCacheSize));
+		if(admissionFilter) {
+			client.setAdmissionSketch(new FrequencySketch(clientCacheSize));
+		}
+	}
+	
+	/**
+	 * Set the cache storage, eviction policy and dictionary of the server. 
+	 * Must be called before the server cache warm up.
+	 * 
+	 * @param server server to be set up
+	 */
+	protected void setupServerCache(CachingServer server) {
+		server.setDictionary(dictionary);
+		server.setRandom(nextStream());
+		server.setCacheStorage(createStorage(storageType, serverCacheSize));
+		server.setEvictionPolicy(createEvictionPolicy(serverCacheSize));
+	}
+	
+	/**
+	 * Fill the server disk with the blocks of the warm up contents and
+	 * distribute the disk blocks to the client and server caches. Blocks
+	 * are taken from the disk storage, so a cached block shares its state
+	 * with its disk slot whatever the disk layout.
+	 * 
+	 * @param contents warm up contents of the round
+	 */
+	public void warmup(WarmupContents contents) {
+		serverDisk = StorageFactory.createStorage(diskStorageType, 
+				serverDiskSize, dictionary, null);
+		serverDisk.fillStorageIds(contents.getServerDisk(), dictionary);
+		int[][] clientSlots = contents.getClientCaches();
+		Block[][] clientCaches = new Block[clientSlots.length][];
+		for(int i = 0; i < clientSlots.length; i++) {
+			clientCaches[i] = getDiskBlocks(serverDisk, clientSlots[i]);
+		}
+		warmup(clientCaches, getDiskBlocks(serverDisk, 
+				contents.getServerCache()), serverDisk);
+	}
+	
+	/**
+	 * Get the blocks of disk slots to be placed in a cache
+	 */
+	private Block[] getDiskBlocks(Storage serverDisk, int[] slots) {
+		Block[] blocks = new Block[slots.length];
+		for(int i = 0; i < slots.length; i++) {
+			blocks[i] = serverDisk.getBlock(slots[i]);
+			blocks[i].isCached = true;
+		}
+		return blocks;
+	}
+	
 	/**
 	 * Best Case where every requested data will be on the requested client 
 	 * cache
@@ -97,14 +349,14 @@ public abstract class CachingAlgorithm {
 	 * @return ticks
 	 */
 	public double traceBestCase(Block[][] clientCaches) {
-		Random random = new Random();
+		Random random = nextStream();
 		double result = 0.0;
 		for(int i = 0; i < totalRequests; i++) {
 			int index = random.nextInt() % (nClients * clientCacheSize);
 			int clientId = (int) index / clientCacheSize;
 			int requestId = index % clientCacheSize;
 			clients[clientId].cacheLookup(
-					clientCaches[clientId][requestId].getData());
+					clientCaches[clientId][requestId].getId());
 		}
 		return result;
 	}
@@ -116,8 +368,8 @@ public abstract class CachingAlgorithm {
 	 * @return ticks
 	 */
 	public double traceSecondBestCase(Block[][] clientCaches) {
-		Random randomClient = new Random();
-		Random randomRequest = new Random();
+		Random randomClient = nextStream();
+		Random randomRequest = nextStream();
 		int chosenClientId;
 		double result = 0.0;
 		for(int i = 0; i < totalRequests; i++) {
@@ -128,7 +380,7 @@ public abstract class CachingAlgorithm {
 				int clientId = (int) requestId / clientCacheSize;
 				if(chosenClientId != clientId) {
 					clients[chosenClientId].cacheLookup(clientCaches[clientId]
-							[requestId].getData());
+							[requestId].getId());
 					break;
 				}
 			}
@@ -142,13 +394,13 @@ public abstract class CachingAlgorithm {
 	 * @return ticks
 	 */
 	public double traceThirdBestCase(Block[] serverCache) {
-		Random randomClient = new Random();
-		Random randomRequest = new Random();
+		Random randomClient = nextStream();
+		Random randomRequest = nextStream();
 		double result = 0.0;
 		for(int i = 0; i < totalRequests; i++) {
 			int requestId = randomRequest.nextInt() % serverCacheSize;
 			int clientId = randomClient.nextInt() % nClients;
-			clients[clientId].cacheLookup(serverCache[requestId].getData());
+			clients[clientId].cacheLookup(serverCache[requestId].getId());
 		}
 		return result;
 	}
@@ -160,13 +412,13 @@ public abstract class CachingAlgorithm {
 	 * @return ticks
 	 */
 	public double traceWorstCase(Block[] serverDisk) {
-		Random randomClient = new Random();
-		Random randomRequest = new Random();
+		Random randomClient = nextStream();
+		Random randomRequest = nextStream();
 		double result = 0.0;
 		for(int i = 0; i < totalRequests; i++) {
 			int requestId = randomRequest.nextInt() % serverDiskSize;
 			int clientId = randomClient.nextInt() % nClients;
-			clients[clientId].cacheLookup(serverDisk[requestId].getData());
+			clients[clientId].cacheLookup(serverDisk[requestId].getId());
 		}
 		return result;
 	}
@@ -174,26 +426,62 @@ public abstract class CachingAlgorithm {
 	/**
 	 * Method to execute the cooperative caching experiments
 	 * 
-	 * @param requests list of requests to be fired on clients
-	 */
-	public void executeExperiment(List<String> requests) {
-		int localCacheHit = 0;
-		int globalCacheHit = 0;
-		int cacheMiss = 0;
-		int ticks  = 0;
-		for(String request : requests) {
-			CachingClient client = ((CachingClient)clients
-					[new Random().nextInt(nClients)]); 
-			client.requestData(0, 0, 0, 0, null, request, false);
-			ticks += client.getResponseCost();
-			cacheMiss += client.getCacheMiss();
-			localCacheHit += client.getLocalCacheHit();
-			globalCacheHit += client.getGlobalCacheHit();
+	 * @param requests block ids of requests to be fired on clients
+	 */
+	public void executeExperiment(int[] requests) {
+		localCacheHit = 0;
+		globalCacheHit = 0;
+		cacheMiss = 0;
+		ticks  = 0;
+		Random random = nextStream();
+		if(arrivalRate > 0) {
+			eventSimulator = new DiscreteEventSimulator(this, nClients);
+			eventSimulator.run(requests, arrivalRate, random, 
+					nextStream());
+		} else {
+			for(int request : requests) {
+				serveRequest(request, random, null);
+			}
+		}
+		ticksPerRequest = (double) ticks / (double) requests.length;
+		cacheMissPerRequest = (double) cacheMiss / (double) requests.length;
+		localCacheHitPerRequest = (double) localCacheHit / (double) requests.length;
+		globalCacheHitPerRequest = (double) globalCacheHit / (double) requests.length;
+	}
+	
+	/**
+	 * Serves one request on a random client and adds its ticks, cache miss
+	 * and cache hits to the experiment totals
+	 * 
+	 * @param request block id of requested data
+	 * @param random random stream choosing the client
+	 * @param trace trace recording the service stages, null if not traced
+	 */
+	protected void serveRequest(int request, Random random, 
+			RequestTrace trace) {
+		CachingServer cachingServer = (CachingServer) server;
+		CachingClient client = ((CachingClient)clients
+				[random.nextInt(nClients)]); 
+		cachingServer.setRequestTrace(trace);
+		client.recordRequest(request);
+		client.requestData(0, 0, 0, 0, null, request, false);
+		cachingServer.setRequestTrace(null);
+		if(trace != null) {
+			trace.setResponseTicks(client.getResponseCost());
 		}
-		ticksPerRequest = (double) ticks / (double)requests.size();
-		cacheMissPerRequest = (double) cacheMiss / (double) requests.size();
-		localCacheHitPerRequest = (double) localCacheHit / (double) requests.size();
-		globalCacheHitPerRequest = (double) globalCacheHit / (double) requests.size();
+		ticks += client.getResponseCost();
+		cacheMiss += client.getCacheMiss();
+		localCacheHit += client.getLocalCacheHit();
+		globalCacheHit += client.getGlobalCacheHit();
+	}
+	
+	/**
+	 * Get the simulator of the last experiment
+	 * 
+	 * @return simulator, null if requests were served one at a time
+	 */
+	public DiscreteEventSimulator getEventSimulator() {
+		return eventSimulator;
 	}
 	
 	/**
@@ -230,8 +518,8 @@ public abstract class CachingAlgorithm {
 	 * 
 	 * @param clientCaches data to be inserted in client caches
 	 * @param serverCache data to be inserted in server cache
-	 * @param serverDisk data to be inserted in server disk
+	 * @param serverDisk server disk filled with data
 	 */
 	public abstract void warmup(Block[][] clientCaches, Block[] serverCache,
-			Block[] serverDisk);
+			Storage serverDisk);
 }
@@ -48,6 +48,11 @@ public class CachingAlgorithmFactory {
 					serverCacheSize, serverDiskSize, cacheReferenceTicks,
 					diskToCacheTicks, networkHopTicks);
 			break;
+		case SummaryCacheCuckoo:
+			ca = new SummaryCache(nClients, clientCacheSize,
+					serverCacheSize, serverDiskSize, cacheReferenceTicks,
+					diskToCacheTicks, networkHopTicks, SummaryType.Cuckoo);
+			break;
 		default:
 			break;
 		}
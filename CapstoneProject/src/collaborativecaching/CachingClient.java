@@ -3,6 +3,7 @@ package collaborativecaching;
 import java.util.Random;
 
 import simulation.Block;
+import simulation.BlockDictionary;
 import simulation.Client;
 
 /**
@@ -38,14 +39,17 @@ public abstract class CachingClient extends Client {
 	/** Total cache miss for the request */
 	protected int cacheMiss;
 
-	/** LRU count of cache blocks */
-	protected int[] cacheLRUCount;
+	/** Policy choosing the cache block to be replaced */
+	protected EvictionPolicy evictionPolicy;
 
-	/** Minimum LRU count */
-	protected static final int MIN_LRU_COUNT = 1;
+	/** Recent request frequency deciding admission, null to admit all */
+	protected FrequencySketch admissionSketch;
 
-	/** Maximum LRU count */
-	protected static final int MAX_LRU_COUNT = 10;
+	/** Dictionary of block ids used to map data to ids */
+	protected BlockDictionary dictionary;
+
+	/** Random stream of this client */
+	protected Random random;
 
 	/**
 	 * Client object used in analyzing the Caching Algorithms
@@ -67,7 +71,7 @@ public abstract class CachingClient extends Client {
 		this.cacheReferenceTicks = cacheReferenceTicks;
 		this.networkHopTicks = networkHopTicks;
 		this.server = server;
-		this.cacheLRUCount = new int[cacheSize];
+		this.evictionPolicy = new LRUPolicy(cacheSize);
 	}
 
 	/**
@@ -77,16 +81,94 @@ public abstract class CachingClient extends Client {
 	 *            data to be transferred to client cache
 	 */
 	public boolean cacheWarmUp(Block[] contents) {
-		super.cacheWarmUp(contents);
-		Random random = new Random();
-		for (int i = 0; i < cacheSize; i++) {
-			cacheLRUCount[i] = random
-					.nextInt((MAX_LRU_COUNT - MIN_LRU_COUNT) + 1)
-					+ MIN_LRU_COUNT;
+		if(random == null) {
+			throw new IllegalStateException("Random stream of client " 
+					+ clientId + " is not set");
+		}
+		if(!super.cacheWarmUp(contents)) {
+			return false;
 		}
+		evictionPolicy.warmUp(contents, random);
 		return true;
 	}
 
+	/**
+	 * Sets the policy choosing the cache block to be replaced. Must be set
+	 * before the cache warm up.
+	 * 
+	 * @param evictionPolicy
+	 *            policy over the client cache slots
+	 */
+	public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+		this.evictionPolicy = evictionPolicy;
+	}
+
+	/**
+	 * Sets the sketch of recent request frequency used to admit blocks
+	 * fetched from disk. Without a sketch every fetched block is admitted.
+	 * 
+	 * @param admissionSketch
+	 *            frequency sketch sized for the client cache
+	 */
+	public void setAdmissionSketch(FrequencySketch admissionSketch) {
+		this.admissionSketch = admissionSketch;
+	}
+
+	/**
+	 * Sets the random stream used by this client. Must be set before the
+	 * cache warm up.
+	 * 
+	 * @param random
+	 *            seeded random stream
+	 */
+	public void setRandom(Random random) {
+		this.random = random;
+	}
+
+	/**
+	 * Sets the dictionary mapping data to block ids
+	 * 
+	 * @param dictionary
+	 *            dictionary built when the data was loaded
+	 */
+	public void setDictionary(BlockDictionary dictionary) {
+		this.dictionary = dictionary;
+	}
+
+	/**
+	 * Records a request made to this client in the admission sketch
+	 * 
+	 * @param id
+	 *            block id of requested data
+	 */
+	public void recordRequest(int id) {
+		if (admissionSketch != null) {
+			admissionSketch.increment(id);
+		}
+	}
+
+	/**
+	 * Decides if a block fetched from disk should replace the block chosen by
+	 * the eviction policy. The block is admitted only if it was requested
+	 * more often recently than the victim, so data requested once does not
+	 * flush useful blocks from the cache.
+	 * 
+	 * @param data
+	 *            block fetched from disk
+	 * @return true if the block should be put in the cache
+	 */
+	public boolean admit(Block data) {
+		if (admissionSketch == null) {
+			return true;
+		}
+		int victim = evictionPolicy.peekVictim(data.getId());
+		if (victim == -1) {
+			return true;
+		}
+		return admissionSketch.frequency(data.getId()) > admissionSketch
+				.frequency(cache.getId(victim));
+	}
+
 	/**
 	 * Set the client response to a request along with the response attributes
 	 * like ticks, cache hit and cache miss.
@@ -169,21 +251,21 @@ public abstract class CachingClient extends Client {
 	 * @param requester
 	 *            client who requested the data
 	 * @param block
-	 *            data requested
+	 *            block id of data requested
 	 * @param sentByServer
 	 *            flag to determine if the request is sent by the server
 	 * @return boolean to represent status
 	 */
 	public boolean requestData(int ticksPerRequest, int cacheMiss,
 			int localCacheHit, int globalCacheHit, CachingClient requester,
-			String block, boolean sentByServer) {
+			int block, boolean sentByServer) {
 		int index = cacheLookup(block);
 		ticksPerRequest += cacheReferenceTicks;
+		server.recordService((int) clientId, ticksPerRequest,
+				cacheReferenceTicks);
 		if (requester == null) {
 			requester = this;
 		}
-		// reduce the LRU count of each cache element after cache reference
-		decrementCacheLRU(index);
 		// if found in current client cache the return to requester
 		if (index != -1) {
 			ticksPerRequest += networkHopTicks;
@@ -191,14 +273,11 @@ public abstract class CachingClient extends Client {
 				localCacheHit += 1;
 			else
 				globalCacheHit += 1;
-			if (cacheLRUCount[index] != MAX_LRU_COUNT) {
-				cacheLRUCount[index] += 1;
-			}
+			touchCache(index);
 			requester.setResponse(cache.getBlock(index), ticksPerRequest,
 					cacheMiss, localCacheHit, globalCacheHit);
 		} else {
 			if (sentByServer) {
-				server.updateClientContents();
 				return false;
 			}
 			ticksPerRequest += networkHopTicks;
@@ -209,20 +288,36 @@ public abstract class CachingClient extends Client {
 	}
 
 	/**
-	 * Method to decrement the least recently used count of the cache elements
-	 * @param referenceIndex
+	 * Method to record a reference to a cache block with the eviction policy
+	 * @param referenceIndex index of referenced block, -1 if not in cache
 	 */
-	protected void decrementCacheLRU(int referenceIndex) {
-		// reduce the LRU count of each cache element after cache reference
-		for (int i = 0; i < cacheLRUCount.length; i++) {
-			if (i != referenceIndex && cacheLRUCount[i] > 0) {
-				cacheLRUCount[i] -= 1;
-			}
+	protected void touchCache(int referenceIndex) {
+		if (referenceIndex != -1) {
+			evictionPolicy.recordAccess(referenceIndex);
+		}
+	}
+
+	/**
+	 * Puts a block in a cache slot and tells the server directory about the
+	 * data added to and removed from this client cache. All updates of the
+	 * client cache go through this method.
+	 * 
+	 * @param slot
+	 *            index of cache block to be replaced
+	 * @param data
+	 *            block to be put in the cache
+	 */
+	protected void replaceBlock(int slot, Block data) {
+		int replaced = cache.getId(slot);
+		cache.update(slot, data);
+		if (replaced != -1 && cacheLookup(replaced) == -1) {
+			server.removeHolder(replaced, clientId);
 		}
+		server.addHolder(data.getId(), clientId);
 	}
 
 	/**
-	 * Method to update the least recently used cache block.
+	 * Method to update the cache block chosen by the eviction policy.
 	 * 
 	 * @param data
 	 *            block to be updated
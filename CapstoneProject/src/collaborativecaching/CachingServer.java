@@ -1,12 +1,11 @@
 package collaborativecaching;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Random;
-import java.util.Set;
 
 import simulation.Block;
+import simulation.BlockDictionary;
+import simulation.ClientIdSet;
 import simulation.Server;
 
 /**
@@ -30,20 +29,26 @@ public abstract class CachingServer extends Server {
 	/** Ticks required for server disk reference */
 	protected int diskToCacheTicks;
 	
-	/** List containing the set of hash values of each client cache */
-	protected List<Set<Integer>> clientContents;
+	/** 
+	 * Ids of the clients caching each data indexed by block id, kept once 
+	 * clients are known 
+	 */
+	protected ClientIdSet[] directory;
+	
+	/** Dictionary of block ids used to map data to ids */
+	protected BlockDictionary dictionary;
 	
 	/** Array of clients in the system */
 	protected CachingClient[] clients;
 	
-	/** Minimum LRU count */
-	protected static final int MIN_LRU_COUNT = 1;
+	/** Policy choosing the cache block to be replaced */
+	protected EvictionPolicy evictionPolicy;
 	
-	/** Maximum LRU count */
-	protected static final int MAX_LRU_COUNT = 10;
-		
-	/** LRU count of cache blocks */
-	protected int[] cacheLRUCount;
+	/** Random stream of this server */
+	protected Random random;
+	
+	/** Trace of the request being served, null if not traced */
+	protected RequestTrace requestTrace;
 	
 	/**
 	 * Server object used in analyzing the Caching Algorithms
@@ -62,8 +67,8 @@ public abstract class CachingServer extends Server {
 		this.cacheReferenceTicks = cacheReferenceTicks;
 		this.diskToCacheTicks = diskToCacheTicks;
 		this.networkHopTicks = networkHopTicks;
-		clientContents = new ArrayList<Set<Integer>>();
-		cacheLRUCount = new int[cacheSize];
+		directory = new ClientIdSet[diskSize];
+		evictionPolicy = new LRUPolicy(cacheSize);
 	}
 
 	/**
@@ -75,7 +80,6 @@ public abstract class CachingServer extends Server {
 		nClients = clients.length;
 		this.clients = new CachingClient[nClients];
 		for(int i = 0; i < nClients; i++) {
-			clientContents.add(new HashSet<Integer>());
 			this.clients[i] = clients[i];
 		}
 	}
@@ -86,28 +90,160 @@ public abstract class CachingServer extends Server {
 	 * @param contents data to be transferred to client cache
 	 */
 	public boolean cacheWarmUp(Block[] contents) {
-		super.cacheWarmUp(contents);
-		Random random = new Random();
-		for(int i = 0; i < cacheSize; i++) {
-			cacheLRUCount[i] = random.nextInt((MAX_LRU_COUNT - MIN_LRU_COUNT)
-					+ 1) + MIN_LRU_COUNT;
+		if(random == null) {
+			throw new IllegalStateException("Random stream of the server is"
+					+ " not set");
+		}
+		if(!super.cacheWarmUp(contents)) {
+			return false;
 		}
+		evictionPolicy.warmUp(contents, random);
 		return true;
 	}
 	
 	/**
-	 * Records the contents of each client cache 
+	 * Sets the policy choosing the cache block to be replaced. Must be set
+	 * before the cache warm up.
+	 * 
+	 * @param evictionPolicy policy over the server cache slots
+	 */
+	public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+		this.evictionPolicy = evictionPolicy;
+	}
+	
+	/**
+	 * Sets the random stream used by this server. Must be set before the 
+	 * cache warm up.
+	 * 
+	 * @param random seeded random stream
+	 */
+	public void setRandom(Random random) {
+		this.random = random;
+	}
+	
+	/**
+	 * Sets the trace recording the service of the next request at clients
+	 * and server
+	 * 
+	 * @param requestTrace empty trace or null to stop tracing
+	 */
+	public void setRequestTrace(RequestTrace requestTrace) {
+		this.requestTrace = requestTrace;
+	}
+	
+	/**
+	 * Records the service of the current request at a node
+	 * 
+	 * @param node client id or server node of RequestTrace
+	 * @param ticks ticks of the request including this service
+	 * @param serviceTicks ticks spent at the node
+	 */
+	public void recordService(int node, int ticks, int serviceTicks) {
+		if(requestTrace != null) {
+			requestTrace.record(node, ticks, serviceTicks);
+		}
+	}
+	
+	/**
+	 * Sets the dictionary mapping data to block ids
+	 * 
+	 * @param dictionary dictionary built when the data was loaded
+	 */
+	public void setDictionary(BlockDictionary dictionary) {
+		this.dictionary = dictionary;
+	}
+	
+	/**
+	 * Fills the directory from the contents of each client cache. Called once
+	 * after warm up, later client cache updates reach the directory through
+	 * addHolder and removeHolder.
 	 */
 	public void updateClientContents() {
+		Arrays.fill(directory, null);
 		for(int i = 0; i < nClients; i++) {
 			CachingClient client = clients[i];
 			for(int j = 0; j < client.getCacheSize(); j++) {
-				clientContents.get(i).add(client.getCacheBlock(j).getData().
-						hashCode());
+				addHolder(client.getCacheBlockId(j),
+						client.getClientId());
+			}
+		}
+	}
+	
+	/**
+	 * Records in the directory that a client cached the data
+	 * 
+	 * @param id block id of data put in client cache
+	 * @param clientId id of client
+	 */
+	public void addHolder(int id, long clientId) {
+		if(clients == null) {
+			return;
+		}
+		if(id >= directory.length) {
+			directory = Arrays.copyOf(directory,
+					Math.max(id + 1, 2 * directory.length));
+		}
+		if(directory[id] == null) {
+			directory[id] = new ClientIdSet();
+		}
+		directory[id].add((int) clientId);
+	}
+	
+	/**
+	 * Records in the directory that a client no longer caches the data
+	 * 
+	 * @param id block id of data replaced from client cache
+	 * @param clientId id of client
+	 */
+	public void removeHolder(int id, long clientId) {
+		ClientIdSet holders = getHolders(id);
+		if(holders != null) {
+			holders.remove((int) clientId);
+			if(holders.isEmpty()) {
+				directory[id] = null;
 			}
 		}
 	}
 	
+	/**
+	 * Get the ids of the clients caching the data
+	 * 
+	 * @param id block id of data
+	 * @return holders of data, null if no client caches it
+	 */
+	public ClientIdSet getHolders(int id) {
+		return (id < directory.length) ? directory[id] : null;
+	}
+	
+	/**
+	 * Get the number of clients caching the data
+	 * 
+	 * @param id block id of data to be checked
+	 * @return replica count of data in client caches
+	 */
+	public int getReplicaCount(int id) {
+		ClientIdSet holders = getHolders(id);
+		return (holders == null) ? 0 : holders.size();
+	}
+	
+	/**
+	 * Check if no client other than the given one caches the data. Reads the
+	 * holders of the data in the directory instead of looking up the data in
+	 * every client cache.
+	 * 
+	 * @param id block id of data to be checked
+	 * @param clientId id of client asking for the check
+	 * @return true if data is a singlet
+	 */
+	public boolean isSinglet(int id, long clientId) {
+		ClientIdSet holders = getHolders(id);
+		if(holders == null) {
+			return true;
+		}
+		return holders.isEmpty() || (holders.size() == 1
+				&& holders.get(0) == clientId);
+	}
+	
 	/**
 	 * This method is called by another client/server to request the data from
 	 * the system of collaborative caches.
@@ -116,56 +252,54 @@ public abstract class CachingServer extends Server {
 	 * @param cacheMiss cache miss associated with the current request
 	 * @param cacheHit cache hit associated with the current request
 	 * @param requester client who requested the data
-	 * @param block data requested
+	 * @param block block id of data requested
 	 * 
 	 * @return boolean to represent status  
 	 */
 	public boolean requestData(int ticksPerRequest, int cacheMiss, 
 			int localCacheHit, int globalCacheHit, CachingClient requester,
-			String block) {
-		int hash = block.hashCode(); 
-		// check the block in each client cache
-		for(int i = 0; i < nClients; i++) {
-			if(requester.getClientId() != clients[i].getClientId() &&
-					clientContents.get(i).contains(hash)) {
+			int block) {
+		// forward the request to the clients caching the block
+		ClientIdSet holders = getHolders(block);
+		for(int i = 0; holders != null && i < holders.size(); i++) {
+			int holder = holders.get(i);
+			if(requester.getClientId() != holder) {
 				ticksPerRequest += networkHopTicks;
-				if(clients[i].requestData(ticksPerRequest, cacheMiss, 
+				if(clients[holder].requestData(ticksPerRequest, cacheMiss, 
 						localCacheHit, globalCacheHit, requester, block, true)) {
 					return true;
 				}
 			}
 		}
 		ticksPerRequest += cacheReferenceTicks;
+		recordService(RequestTrace.SERVER_CACHE, ticksPerRequest,
+				cacheReferenceTicks);
 		int index = cacheLookup(block);
-		// reduce the LRU count of each cache element after cache reference
-		for(int i = 0; i < cacheLRUCount.length; i++) {
-			if(i != index && cacheLRUCount[i] > 0) {
-				cacheLRUCount[i] -= 1;
-			}
-		}
 		if(index != -1) {
 			globalCacheHit += 1;
 			ticksPerRequest += networkHopTicks;
-			if(cacheLRUCount[index] != MAX_LRU_COUNT) {
-				cacheLRUCount[index] += 1;
-			}
+			evictionPolicy.recordAccess(index);
 			requester.setResponse(cache.getBlock(index), ticksPerRequest,
 					cacheMiss, localCacheHit, globalCacheHit);
 			return true;
 		}
 		cacheMiss += 1;
 		ticksPerRequest += diskToCacheTicks;
-		index = disk.lookup(block);
+		recordService(RequestTrace.SERVER_DISK, ticksPerRequest,
+				diskToCacheTicks);
+		index = diskLookup(block);
 		if(index != -1) {
 			requester.setResponse(disk.getBlock(index), ticksPerRequest,
 					cacheMiss, localCacheHit, globalCacheHit);
-			requester.updateCache(disk.getBlock(index));
+			if(requester.admit(disk.getBlock(index))) {
+				requester.updateCache(disk.getBlock(index));
+			}
 		}
 		return true;
 	}
 	
 	/**
-	 * Method to update the least recently used cache block.
+	 * Method to update the cache block chosen by the eviction policy.
 	 * 
 	 * @param data block to be updated
 	 */
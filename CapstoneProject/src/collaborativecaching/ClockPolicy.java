@@ -0,0 +1,91 @@
+package collaborativecaching;
+
+import java.util.Random;
+
+import simulation.Block;
+
+/**
+ * CLOCK replacement. A hand sweeps the slots and replaces the first slot
+ * whose reference bit is clear, clearing the bits it passes.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class ClockPolicy implements EvictionPolicy {
+
+	/** Reference bit of each slot */
+	private boolean[] referenced;
+
+	/** Slot under the clock hand */
+	private int hand;
+
+	/**
+	 * Creates CLOCK policy for a cache
+	 *
+	 * @param capacity number of slots in cache
+	 */
+	public ClockPolicy(int capacity) {
+		referenced = new boolean[capacity];
+		hand = 0;
+	}
+
+	@Override
+	public void warmUp(Block[] contents, Random random) {
+		for(int i = 0; i < referenced.length; i++) {
+			referenced[i] = random.nextBoolean();
+		}
+	}
+
+	@Override
+	public void recordAccess(int slot) {
+		referenced[slot] = true;
+	}
+
+	@Override
+	public int selectVictim(int id) {
+		if(referenced.length == 0) {
+			return -1;
+		}
+		while(referenced[hand]) {
+			referenced[hand] = false;
+			hand = (hand + 1) % referenced.length;
+		}
+		return hand;
+	}
+
+	@Override
+	public int peekVictim(int id) {
+		if(referenced.length == 0) {
+			return -1;
+		}
+		// first unreferenced slot from the hand, the hand itself if all
+		// slots are referenced
+		for(int i = 0; i < referenced.length; i++) {
+			int slot = (hand + i) % referenced.length;
+			if(!referenced[slot]) {
+				return slot;
+			}
+		}
+		return hand;
+	}
+
+	@Override
+	public int nextVictim(int slot) {
+		if(referenced.length == 0) {
+			return -1;
+		}
+		if(slot == -1) {
+			return hand;
+		}
+		int next = (slot + 1) % referenced.length;
+		return (next == hand) ? -1 : next;
+	}
+
+	@Override
+	public void recordInsert(int slot, int id) {
+		referenced[slot] = true;
+		if(slot == hand) {
+			hand = (hand + 1) % referenced.length;
+		}
+	}
+}
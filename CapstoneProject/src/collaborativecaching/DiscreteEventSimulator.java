@@ -0,0 +1,210 @@
+package collaborativecaching;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Discrete event engine queueing the service traces of a caching algorithm
+ * under Poisson arrivals at the given rate. On arrival the algorithm serves
+ * the request to completion, updating all caches at once and recording the
+ * service stages of the request at clients, server cache and server disk.
+ * Only the recorded stages are then replayed through a FIFO service node
+ * per client and server component, so overlapping traces queue at busy 
+ * nodes but requests never see the cache state of requests in flight. The
+ * trace response time of a request is the completion of its replayed trace
+ * minus its arrival and includes the queueing delay. Hit ratios and ticks
+ * are those of requests served one at a time.
+ * 
+ * @author Shridhar Bhalekar
+ *
+ */
+public class DiscreteEventSimulator implements EventHandler {
+
+	/** Algorithm serving the requests */
+	private CachingAlgorithm algorithm;
+
+	/** Total clients in the system */
+	private int nClients;
+
+	/** Clients followed by server cache and server disk */
+	private ServiceNode[] nodes;
+
+	/** Events ordered by time */
+	private PriorityQueue<SimulationEvent> events;
+
+	/** Events scheduled so far */
+	private long sequence;
+
+	/** Current time in ticks */
+	private double time;
+
+	/** Requests to be fired */
+	private int[] requests;
+
+	/** Requests which arrived so far */
+	private int arrived;
+
+	/** Requests arriving per tick */
+	private double arrivalRate;
+
+	/** Random stream choosing the clients of requests */
+	private Random requestRandom;
+
+	/** Random stream of the inter arrival times */
+	private Random arrivalRandom;
+
+	/** Trace response time of each completed request */
+	private double[] responseTimes;
+
+	/** Requests completed so far */
+	private int completed;
+
+	/** Total time replayed stages waited at busy nodes */
+	private double queueingDelay;
+
+	/**
+	 * Creates simulator for an algorithm
+	 * 
+	 * @param algorithm warmed up algorithm serving the requests
+	 * @param nClients total clients in the system
+	 */
+	public DiscreteEventSimulator(CachingAlgorithm algorithm, int nClients) {
+		this.algorithm = algorithm;
+		this.nClients = nClients;
+		nodes = new ServiceNode[nClients + 2];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new ServiceNode();
+		}
+		events = new PriorityQueue<SimulationEvent>();
+	}
+
+	/**
+	 * Fire the requests and run the simulation until all of them complete
+	 * 
+	 * @param requests block ids of requests to be fired
+	 * @param arrivalRate requests arriving per tick
+	 * @param requestRandom random stream choosing the clients of requests
+	 * @param arrivalRandom random stream of the inter arrival times
+	 */
+	public void run(int[] requests, double arrivalRate, Random requestRandom,
+			Random arrivalRandom) {
+		this.requests = requests;
+		this.arrivalRate = arrivalRate;
+		this.requestRandom = requestRandom;
+		this.arrivalRandom = arrivalRandom;
+		responseTimes = new double[requests.length];
+		if (requests.length > 0) {
+			schedule(0.0, this, null, 0);
+		}
+		while (!events.isEmpty()) {
+			SimulationEvent event = events.poll();
+			time = event.getTime();
+			event.getHandler().handle(event, this);
+		}
+		Arrays.sort(responseTimes, 0, completed);
+	}
+
+	/**
+	 * Handles the arrival of the next request, serving it at once and 
+	 * queueing its trace, and schedules the one after
+	 */
+	@Override
+	public void handle(SimulationEvent event, 
+			DiscreteEventSimulator simulator) {
+		RequestTrace request = new RequestTrace();
+		algorithm.serveRequest(requests[arrived++], requestRandom, request);
+		request.setArrivalTime(time);
+		if (request.getStageCount() == 0) {
+			complete(request, time + request.getDelay(0));
+		} else {
+			schedule(time + request.getDelay(0), getNode(request.getNode(0)),
+					request, 0);
+		}
+		if (arrived < requests.length) {
+			double interArrival = -Math.log(1.0 - arrivalRandom.nextDouble())
+					/ arrivalRate;
+			schedule(time + interArrival, this, null, 0);
+		}
+	}
+
+	/**
+	 * Called by a node when it finished a stage of a request. Sends the
+	 * request to the node of the next stage or completes it.
+	 * 
+	 * @param request request served by the node
+	 * @param stage stage completed
+	 * @param end time at which the node finished the stage
+	 * @param waited time the stage waited for the node
+	 */
+	public void stageCompleted(RequestTrace request, int stage, double end,
+			double waited) {
+		queueingDelay += waited;
+		int next = stage + 1;
+		if (next == request.getStageCount()) {
+			complete(request, end + request.getDelay(next));
+		} else {
+			schedule(end + request.getDelay(next), 
+					getNode(request.getNode(next)), request, next);
+		}
+	}
+
+	private void complete(RequestTrace request, double end) {
+		responseTimes[completed++] = end - request.getArrivalTime();
+	}
+
+	private void schedule(double eventTime, EventHandler handler,
+			RequestTrace request, int stage) {
+		events.add(new SimulationEvent(eventTime, sequence++, handler,
+				request, stage));
+	}
+
+	private ServiceNode getNode(int node) {
+		return nodes[(node >= 0) ? node : nClients - 1 - node];
+	}
+
+	/**
+	 * Get the current time of the simulation
+	 * 
+	 * @return time in ticks
+	 */
+	public double getTime() {
+		return time;
+	}
+
+	/**
+	 * Get the mean trace response time of the completed requests
+	 * 
+	 * @return ticks per request
+	 */
+	public double getMeanResponseTime() {
+		double total = 0.0;
+		for (int i = 0; i < completed; i++) {
+			total += responseTimes[i];
+		}
+		return (completed == 0) ? 0.0 : total / completed;
+	}
+
+	/**
+	 * Get a percentile of the trace response times of the completed requests
+	 * 
+	 * @param percentile percentile from 0 to 100
+	 * @return response time in ticks
+	 */
+	public double getResponseTimePercentile(double percentile) {
+		if (completed == 0) {
+			return 0.0;
+		}
+		int rank = (int) Math.ceil(percentile / 100.0 * completed);
+		return responseTimes[Math.max(0, Math.min(completed, rank) - 1)];
+	}
+
+	/**
+	 * Get the mean time replayed traces waited at busy nodes
+	 * 
+	 * @return ticks per request
+	 */
+	public double getMeanQueueingDelay() {
+		return (completed == 0) ? 0.0 : queueingDelay / completed;
+	}
+}
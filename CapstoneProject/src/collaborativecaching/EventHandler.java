@@ -0,0 +1,20 @@
+package collaborativecaching;
+
+/**
+ * Node of the discrete event simulation handling the events addressed to
+ * it
+ * 
+ * @author Shridhar Bhalekar
+ *
+ */
+public interface EventHandler {
+
+	/**
+	 * Handle an event at the current time of the simulator
+	 * 
+	 * @param event event addressed to this handler
+	 * @param simulator simulator to schedule the follow up events on
+	 */
+	public void handle(SimulationEvent event, 
+			DiscreteEventSimulator simulator);
+}
@@ -0,0 +1,65 @@
+package collaborativecaching;
+
+import java.util.Random;
+
+import simulation.Block;
+
+/**
+ * Replacement policy of a client or server cache. The policy tracks the
+ * slots of the cache and selects the slot whose block is replaced when a new
+ * block is brought into the full cache.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public interface EvictionPolicy {
+
+	/**
+	 * Initializes the policy with the warmed up cache contents
+	 *
+	 * @param contents blocks of the cache by slot
+	 * @param random random generator for the initial order
+	 */
+	public void warmUp(Block[] contents, Random random);
+
+	/**
+	 * Records a reference to the block in the slot
+	 *
+	 * @param slot referenced slot
+	 */
+	public void recordAccess(int slot);
+
+	/**
+	 * Selects the slot to be replaced by the data
+	 *
+	 * @param id block id of data to be brought into the cache
+	 * @return slot or -1 if the cache has no slots
+	 */
+	public int selectVictim(int id);
+
+	/**
+	 * Gets the slot selectVictim would select without changing the policy,
+	 * used to decide on admission before any slot is replaced
+	 *
+	 * @param id block id of data to be brought into the cache
+	 * @return slot or -1 if the cache has no slots
+	 */
+	public int peekVictim(int id);
+
+	/**
+	 * Walks all slots from the most to the least evictable, used when a
+	 * victim has to satisfy additional conditions
+	 *
+	 * @param slot current slot, -1 to get the first slot
+	 * @return next slot or -1 after the last slot
+	 */
+	public int nextVictim(int slot);
+
+	/**
+	 * Records that the block in the slot was replaced by the data
+	 *
+	 * @param slot replaced slot
+	 * @param id block id of data now in the slot
+	 */
+	public void recordInsert(int slot, int id);
+}
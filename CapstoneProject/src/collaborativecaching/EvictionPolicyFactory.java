@@ -0,0 +1,45 @@
+package collaborativecaching;
+
+/**
+ * Factory pattern to create objects of EvictionPolicy class
+ * @author Shridhar Bhalekar
+ */
+public class EvictionPolicyFactory {
+
+	/**
+	 * Method which creates object of appropriate EvictionPolicy implementation
+	 * according to type.
+	 *
+	 * @param type type of EvictionPolicy
+	 * @param capacity number of slots in cache
+	 *
+	 * @return EvictionPolicy object
+	 */
+	public static EvictionPolicy createEvictionPolicy(EvictionPolicyType type,
+			int capacity) {
+		EvictionPolicy policy = null;
+		switch(type) {
+		case LRU:
+			policy = new LRUPolicy(capacity);
+			break;
+		case Clock:
+			policy = new ClockPolicy(capacity);
+			break;
+		case LFU:
+			policy = new LFUPolicy(capacity);
+			break;
+		case TwoQueue:
+			policy = new TwoQueuePolicy(capacity);
+			break;
+		case ARC:
+			policy = new ARCPolicy(capacity);
+			break;
+		case WTinyLFU:
+			policy = new WTinyLFUPolicy(capacity);
+			break;
+		default:
+			break;
+		}
+		return policy;
+	}
+}
@@ -0,0 +1,16 @@
+package collaborativecaching;
+
+/**
+ * Types of eviction policies which can be selected for client and server
+ * caches
+ *
+ * @author Shridhar Bhalekar
+ */
+public enum EvictionPolicyType {
+	LRU,
+	Clock,
+	LFU,
+	TwoQueue,
+	ARC,
+	WTinyLFU
+}
@@ -0,0 +1,108 @@
+package collaborativecaching;
+
+import simulation.DoubleHashingFamily;
+import simulation.Murmur3HashFamily;
+
+/**
+ * Count-min sketch of 4 bit counters estimating how often data was
+ * referenced recently. Each long holds 16 counters and every data maps to
+ * one counter in each of DEPTH words. When the number of increments reaches
+ * ten times the cache size all counters are halved, so old references fade.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class FrequencySketch {
+
+	/** Counters of a data */
+	private static final int DEPTH = 4;
+
+	/** Maximum value of a counter */
+	private static final int MAX_COUNT = 15;
+
+	/** Seeds of the hash of each counter of a data */
+	private static final long[] SEEDS = { 0xc3a5c85c97cb3127L,
+		0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+	/** Mask clearing the bit shifted into each counter while halving */
+	private static final long RESET_MASK = 0x7777777777777777L;
+
+	/** Words holding the counters */
+	private long[] table;
+
+	/** Increments after which the counters are halved */
+	private int sampleSize;
+
+	/** Increments since the last halving */
+	private int additions;
+
+	/**
+	 * Creates sketch for a cache
+	 *
+	 * @param capacity number of slots in cache
+	 */
+	public FrequencySketch(int capacity) {
+		table = new long[Math.max(1, capacity)];
+		sampleSize = 10 * Math.max(1, capacity);
+	}
+
+	/**
+	 * Gets the estimated reference count of data
+	 *
+	 * @param id block id of referenced data
+	 * @return count from 0 to 15
+	 */
+	public int frequency(int id) {
+		int frequency = MAX_COUNT;
+		for(int i = 0; i < DEPTH; i++) {
+			long hash = hash(id, i);
+			int shift = shift(hash);
+			int count = (int) (table[word(hash)] >>> shift) & MAX_COUNT;
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+
+	/**
+	 * Records a reference to data
+	 *
+	 * @param id block id of referenced data
+	 */
+	public void increment(int id) {
+		boolean added = false;
+		for(int i = 0; i < DEPTH; i++) {
+			long hash = hash(id, i);
+			int word = word(hash);
+			int shift = shift(hash);
+			if(((table[word] >>> shift) & MAX_COUNT) < MAX_COUNT) {
+				table[word] += 1L << shift;
+				added = true;
+			}
+		}
+		if(added && ++additions == sampleSize) {
+			reset();
+		}
+	}
+
+	/**
+	 * Halves all the counters
+	 */
+	private void reset() {
+		for(int i = 0; i < table.length; i++) {
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		additions /= 2;
+	}
+
+	private static long hash(int id, int i) {
+		return Murmur3HashFamily.fmix64(id + SEEDS[i]);
+	}
+
+	private int word(long hash) {
+		return DoubleHashingFamily.reduce((int) hash, table.length);
+	}
+
+	private static int shift(long hash) {
+		return (int) (hash >>> 60) << 2;
+	}
+}
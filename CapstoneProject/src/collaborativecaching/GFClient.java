@@ -29,23 +29,16 @@ public class GFClient extends CachingClient {
 	
 	/**
 	 * Overridden method of Caching Client class to update the local cache.
-	 * Block with the minimum LRU count is replaced with this new block. 
+	 * Block chosen by the eviction policy is replaced with this new block.
 	 * 
 	 * @param data block to be updated
 	 */
 	public void updateCache(Block data) {
-		int min = MAX_LRU_COUNT;
-		int minIndex = -1;
-		for(int i = 0; i < cacheSize; i++) {
-			if(cacheLRUCount[i] < min) {
-				min = cacheLRUCount[i];
-				minIndex = i;
-			}
-		}
-		if(min > -1 && min < 10) {
+		int minIndex = evictionPolicy.selectVictim(data.getId());
+		if(minIndex != -1) {
 			Block ret = cache.getBlock(minIndex);
-			cache.update(minIndex, data);
-			cacheLRUCount[minIndex] = MAX_LRU_COUNT;
+			replaceBlock(minIndex, data);
+			evictionPolicy.recordInsert(minIndex, data.getId());
 			server.updateCache(ret);
 		}
 	}
@@ -55,6 +48,6 @@ public class GFClient extends CachingClient {
 	 */
 	@Override
 	public boolean hasMember(String data) {
-		return cache.lookup(data) == -1;
+		return cache.lookup(dictionary.lookup(data)) == -1;
 	}
 }
@@ -30,27 +30,20 @@ public class GFServer extends CachingServer {
 	
 	/**
 	 * Overridden method of Caching Server class to update the local cache.
-	 * Block with the minimum LRU count is replaced with this new block. 
+	 * Block chosen by the eviction policy is replaced with this new block.
 	 * 
 	 * @param data block to be updated
 	 */
 	public void updateCache(Block data) {
-		int min = MAX_LRU_COUNT;
-		int minIndex = -1;
-		for(int i = 0; i < cacheSize; i++) {
-			if(cacheLRUCount[i] < min) {
-				min = cacheLRUCount[i];
-				minIndex = i;
-			}
-		}
-		if(min > -1 && min < 10) {
+		int minIndex = evictionPolicy.selectVictim(data.getId());
+		if(minIndex != -1) {
 			cache.update(minIndex, data);
-			cacheLRUCount[minIndex] = MAX_LRU_COUNT;
+			evictionPolicy.recordInsert(minIndex, data.getId());
 		}
 	}
 		
 	@Override
 	public boolean isMember(String data) {
-		return cache.lookup(data) == -1;
+		return cache.lookup(dictionary.lookup(data)) == -1;
 	}
 }
@@ -1,8 +1,7 @@
 package collaborativecaching;
 
-import java.util.List;
-
 import simulation.Block;
+import simulation.Storage;
 
 /**
  * Class which implements the Greedy forwarding algorithm by creating a system
@@ -37,20 +36,22 @@ public class GreedyForwarding extends CachingAlgorithm {
 	 * 
 	 * @param clientCaches data to be inserted in client caches
 	 * @param serverCache data to be inserted in server cache
-	 * @param serverDisk data to be inserted in server disk
+	 * @param serverDisk server disk filled with data
 	 */
 	public void warmup(Block[][] clientCaches, Block[] serverCache,
-			Block[] serverDisk) {
+			Storage serverDisk) {
 		clients = new GFClient[nClients];
 		server = new GFServer(1, serverCacheSize, serverDiskSize,
 				cacheReferenceTicks, diskToCacheTicks, networkHopTicks);
 		for(int i = 0; i < nClients; i++) {
 			clients[i] = new GFClient(i, clientCacheSize, 
 					cacheReferenceTicks, networkHopTicks, (GFServer)server);
+			setupClientCache((CachingClient) clients[i]);
 			clients[i].cacheWarmUp(clientCaches[i]);
 		}
 		((GFServer) server).updateClients((GFClient[])clients);
 		((GFServer) server).updateClientContents();
+		setupServerCache((CachingServer) server);
 		server.cacheWarmUp(serverCache);
 		server.diskWarmUp(serverDisk);
 	}
@@ -58,7 +59,7 @@ public class GreedyForwarding extends CachingAlgorithm {
 	/**
 	 * Overridden method to execute greedy forwarding
 	 */
-	public void executeExperiment(List<String> requests) {
+	public void executeExperiment(int[] requests) {
 		System.out.println("Executing GreedyForwarding for " + nClients + 
 				" cacheSize = "+ clientCacheSize + " diskSize = " + 
 				serverDiskSize);
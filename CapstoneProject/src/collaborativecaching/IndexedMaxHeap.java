@@ -0,0 +1,116 @@
+package collaborativecaching;
+
+/**
+ * Binary max heap over the keys 0 to size - 1 with an int priority for each
+ * key. The position of every key in the heap is indexed, so the priority of
+ * any key can be changed in O(log n) and the key with the highest priority
+ * is read in O(1). Keys of equal priority are ordered by lower key first.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class IndexedMaxHeap {
+
+	/** Keys in heap order */
+	private int[] heap;
+
+	/** Position of each key in heap */
+	private int[] positions;
+
+	/** Priority of each key */
+	private int[] priorities;
+
+	/**
+	 * Creates heap of keys 0 to size - 1 all with priority 0
+	 *
+	 * @param size number of keys
+	 */
+	public IndexedMaxHeap(int size) {
+		heap = new int[size];
+		positions = new int[size];
+		priorities = new int[size];
+		for(int i = 0; i < size; i++) {
+			heap[i] = i;
+			positions[i] = i;
+		}
+	}
+
+	/**
+	 * Get the key with the highest priority
+	 *
+	 * @return key, -1 if heap has no keys
+	 */
+	public int peek() {
+		return (heap.length == 0) ? -1 : heap[0];
+	}
+
+	/**
+	 * Get the priority of a key
+	 *
+	 * @param key key in heap
+	 * @return priority of key
+	 */
+	public int getPriority(int key) {
+		return priorities[key];
+	}
+
+	/**
+	 * Change the priority of a key and restore the heap order
+	 *
+	 * @param key key in heap
+	 * @param priority new priority of key
+	 */
+	public void setPriority(int key, int priority) {
+		int old = priorities[key];
+		priorities[key] = priority;
+		if(priority > old) {
+			siftUp(positions[key]);
+		} else if(priority < old) {
+			siftDown(positions[key]);
+		}
+	}
+
+	private void siftUp(int position) {
+		while(position > 0) {
+			int parent = (position - 1) >>> 1;
+			if(!above(heap[position], heap[parent])) {
+				break;
+			}
+			swap(position, parent);
+			position = parent;
+		}
+	}
+
+	private void siftDown(int position) {
+		while(true) {
+			int child = 2 * position + 1;
+			if(child >= heap.length) {
+				break;
+			}
+			if(child + 1 < heap.length && above(heap[child + 1], heap[child])) {
+				child++;
+			}
+			if(!above(heap[child], heap[position])) {
+				break;
+			}
+			swap(position, child);
+			position = child;
+		}
+	}
+
+	/**
+	 * Check if key a belongs above key b in the heap
+	 */
+	private boolean above(int a, int b) {
+		return priorities[a] > priorities[b]
+				|| (priorities[a] == priorities[b] && a < b);
+	}
+
+	private void swap(int i, int j) {
+		int key = heap[i];
+		heap[i] = heap[j];
+		heap[j] = key;
+		positions[heap[i]] = i;
+		positions[heap[j]] = j;
+	}
+}
@@ -0,0 +1,90 @@
+package collaborativecaching;
+
+import java.util.Random;
+
+import simulation.Block;
+
+/**
+ * Least frequently used replacement. Slots are kept in one recency list per
+ * reference count, so the victim is the least recently used slot of the
+ * lowest count. Counts saturate at MAX_FREQUENCY.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class LFUPolicy implements EvictionPolicy {
+
+	/** Maximum reference count of a slot */
+	private static final int MAX_FREQUENCY = 15;
+
+	/** Slots by reference count, list i holds count i + 1 */
+	private RecencyList frequencies;
+
+	/**
+	 * Creates LFU policy for a cache
+	 *
+	 * @param capacity number of slots in cache
+	 */
+	public LFUPolicy(int capacity) {
+		frequencies = new RecencyList(capacity, MAX_FREQUENCY);
+		for(int i = 0; i < capacity; i++) {
+			frequencies.add(0, i);
+		}
+	}
+
+	@Override
+	public void warmUp(Block[] contents, Random random) {
+		frequencies.shuffle(random);
+	}
+
+	@Override
+	public void recordAccess(int slot) {
+		int list = frequencies.listOf(slot);
+		if(list < MAX_FREQUENCY - 1) {
+			frequencies.remove(slot);
+			frequencies.add(list + 1, slot);
+		} else {
+			frequencies.touch(slot);
+		}
+	}
+
+	@Override
+	public int selectVictim(int id) {
+		return firstSlot(0);
+	}
+
+	@Override
+	public int peekVictim(int id) {
+		return selectVictim(id);
+	}
+
+	@Override
+	public int nextVictim(int slot) {
+		if(slot == -1) {
+			return firstSlot(0);
+		}
+		int next = frequencies.newer(slot);
+		if(next != -1) {
+			return next;
+		}
+		return firstSlot(frequencies.listOf(slot) + 1);
+	}
+
+	@Override
+	public void recordInsert(int slot, int id) {
+		frequencies.remove(slot);
+		frequencies.add(0, slot);
+	}
+
+	/**
+	 * Gets the least recently used slot of the lowest non empty list
+	 */
+	private int firstSlot(int fromList) {
+		for(int list = fromList; list < MAX_FREQUENCY; list++) {
+			if(frequencies.size(list) > 0) {
+				return frequencies.leastRecent(list);
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,59 @@
+package collaborativecaching;
+
+import java.util.Random;
+
+import simulation.Block;
+
+/**
+ * Least recently used replacement
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class LRUPolicy implements EvictionPolicy {
+
+	/** Recency order of the slots */
+	private RecencyList recency;
+
+	/**
+	 * Creates LRU policy for a cache
+	 *
+	 * @param capacity number of slots in cache
+	 */
+	public LRUPolicy(int capacity) {
+		recency = new RecencyList(capacity);
+	}
+
+	@Override
+	public void warmUp(Block[] contents, Random random) {
+		recency.shuffle(random);
+	}
+
+	@Override
+	public void recordAccess(int slot) {
+		recency.touch(slot);
+	}
+
+	@Override
+	public int selectVictim(int id) {
+		return recency.leastRecent(0);
+	}
+
+	@Override
+	public int peekVictim(int id) {
+		return selectVictim(id);
+	}
+
+	@Override
+	public int nextVictim(int slot) {
+		if(slot == -1) {
+			return recency.leastRecent(0);
+		}
+		return recency.newer(slot);
+	}
+
+	@Override
+	public void recordInsert(int slot, int id) {
+		recency.touch(slot);
+	}
+}
@@ -36,28 +36,22 @@ public class NCClient extends CachingClient {
 	 * @param data block to be updated in this client cache.
 	 */
 	public void updateSinglet(Block data) {
-		int min = MAX_LRU_COUNT;
 		int minIndex = -1;
-		// check for duplicate blocks in system and replace that block
-		for(int i = 0; i < cacheSize; i++) {
-			if(cacheLRUCount[i] < min && !((NCServer)server).
-					checkSinglet(cache.getBlock(i), this)) {
-				min = cacheLRUCount[i];
+		// check for duplicate blocks in system and replace the least 
+		// recently used one
+		for(int i = evictionPolicy.nextVictim(-1); i != -1;
+				i = evictionPolicy.nextVictim(i)) {
+			if(!((NCServer)server).checkSinglet(cache.getBlock(i), this)) {
 				minIndex = i;
+				break;
 			}
 		}
 		// if no duplicate block in this cache then replace singlet
 		if(minIndex == -1) {
-			min = MAX_LRU_COUNT;
-			for(int i = 0; i < cacheSize; i++) {
-				if(cacheLRUCount[i] <= min) {
-					min = cacheLRUCount[i];
-					minIndex = i;
-				}
-			}
+			minIndex = evictionPolicy.selectVictim(data.getId());
 		}
-		cache.update(minIndex, data);
-		cacheLRUCount[minIndex] = MAX_LRU_COUNT;
+		replaceBlock(minIndex, data);
+		evictionPolicy.recordInsert(minIndex, data.getId());
 	}
 	
 	@Override
@@ -70,36 +64,29 @@ public class NCClient extends CachingClient {
 	 * @param data block to be updated
 	 */
 	public void updateCache(Block data) {
-		int min = MAX_LRU_COUNT;
-		int minIndex = -1;
 		boolean forwardedSinglet = false;
-		// get the min from the LRU list
-		for(int i = 0; i < cacheSize; i++) {
-			if(cacheLRUCount[i] < min) {
-				min = cacheLRUCount[i];
-				minIndex = i;
-			}
-		}
-		if(min >= 0 && min < 10) {
+		// get the block chosen by the eviction policy
+		int minIndex = evictionPolicy.selectVictim(data.getId());
+		if(minIndex != -1) {
 			Block ret = cache.getBlock(minIndex);
 			// check if block is singlet and forward accordingly
 			if(((NCServer)server).checkSinglet(ret, this)) {
-				if(ret.recirculationCount == -1) {
-					ret.recirculationCount = NCClient.reCirculationCount;
+				if(ret.getRecirculationCount() == -1) {
+					ret.setRecirculationCount(NCClient.reCirculationCount);
 					((NCServer) server).forwardSinglet(ret, this);
 					forwardedSinglet = true;
-				} else if(ret.recirculationCount > 0) {
-					ret.recirculationCount -= 1;
-					if(ret.recirculationCount != 0) {
+				} else if(ret.getRecirculationCount() > 0) {
+					ret.setRecirculationCount(ret.getRecirculationCount() - 1);
+					if(ret.getRecirculationCount() != 0) {
 						((NCServer) server).forwardSinglet(ret, this);
 						forwardedSinglet = true;
 					}
 				}
 			} else {
-				ret.recirculationCount = -1;
+				ret.setRecirculationCount(-1);
 			}
-			cache.update(minIndex, data);
-			cacheLRUCount[minIndex] =  MAX_LRU_COUNT;
+			replaceBlock(minIndex, data);
+			evictionPolicy.recordInsert(minIndex, data.getId());
 			if(!forwardedSinglet) {
 				server.updateCache(ret);
 			}
@@ -114,20 +101,21 @@ public class NCClient extends CachingClient {
 	 * @param cacheMiss cache miss associated with the current request
 	 * @param cacheHit cache hit associated with the current request
 	 * @param requester client who requested the data
-	 * @param block data requested
+	 * @param block block id of data requested
 	 * @param sentByServer flag to determine if the request is sent by the 
 	 * 		  server
 	 * @return boolean to represent status  
 	 */
 	public boolean requestData(int ticksPerRequest, int cacheMiss, 
 			int localCacheHit, int globalCacheHit, CachingClient requester,
-			String block, boolean sentByServer) {
+			int block, boolean sentByServer) {
 		int index = cacheLookup(block);
 		ticksPerRequest += cacheReferenceTicks;
+		server.recordService((int) clientId, ticksPerRequest,
+				cacheReferenceTicks);
 		if(requester == null) {
 			requester = this;
 		}
-		decrementCacheLRU(index);
 		// if found in current client cache the return to requester
 		if(index != -1) {
 			ticksPerRequest += networkHopTicks;
@@ -135,18 +123,15 @@ public class NCClient extends CachingClient {
 				localCacheHit += 1;
 			else
 				globalCacheHit += 1;
-			if(cacheLRUCount[index] != MAX_LRU_COUNT) {
-				cacheLRUCount[index] += 1;
-			}
-			if(cache.getBlock(index).recirculationCount > -1) {
-				cache.getBlock(index).recirculationCount = 
-						NCClient.reCirculationCount; 
+			touchCache(index);
+			if(cache.getBlock(index).getRecirculationCount() > -1) {
+				cache.getBlock(index).setRecirculationCount(
+						NCClient.reCirculationCount);
 			}
 			requester.setResponse(cache.getBlock(index), ticksPerRequest,
 					cacheMiss, localCacheHit, globalCacheHit);
 		} else {
 			if (sentByServer) {
-				server.updateClientContents();
 				return false;
 			}
 			ticksPerRequest += networkHopTicks;
@@ -161,7 +146,7 @@ public class NCClient extends CachingClient {
 	 */
 	@Override
 	public boolean hasMember(String data) {
-		return (cacheLookup(data) != -1);
+		return (cacheLookup(dictionary.lookup(data)) != -1);
 	}
 
 }
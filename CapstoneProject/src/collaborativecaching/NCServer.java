@@ -1,7 +1,5 @@
 package collaborativecaching;
 
-import java.util.Random;
-
 import simulation.Block;
 
 /**
@@ -38,19 +36,11 @@ public class NCServer extends CachingServer {
 	 */
 	@Override
 	public void updateCache(Block data) {
-		int min = MAX_LRU_COUNT;
-		int minIndex = -1;
-		// find the cache block with min LRU count
-		for(int i = 0; i < cacheSize; i++) {
-			if(cacheLRUCount[i] < min) {
-				min = cacheLRUCount[i];
-				minIndex = i;
-			}
-		}
-		if(min > -1 && min < 10) {
+		// replace the block chosen by the eviction policy
+		int minIndex = evictionPolicy.selectVictim(data.getId());
+		if(minIndex != -1) {
 			cache.update(minIndex, data);
-			cacheLRUCount[minIndex] =  new Random().nextInt((MAX_LRU_COUNT
-					- MIN_LRU_COUNT) + 1) + MIN_LRU_COUNT;
+			evictionPolicy.recordInsert(minIndex, data.getId());
 		}
 	}
 	
@@ -62,7 +52,6 @@ public class NCServer extends CachingServer {
 	 * @param sender client who sent the block
 	 */
 	public void forwardSinglet(Block singlet, CachingClient sender) {
-		Random random = new Random();
 		long clientId = sender.getClientId();
 		int clientCovered = 0;
 		while(clientCovered < nClients) {
@@ -73,8 +62,7 @@ public class NCServer extends CachingServer {
 			clientCovered += 1;
 		}
 		if(clientId != sender.getClientId()) {
-			((NCClient)clients[(int)clientId]).updateSinglet(singlet);;
-			super.updateClientContents();
+			((NCClient)clients[(int)clientId]).updateSinglet(singlet);
 		}
 	}
 	
@@ -89,13 +77,7 @@ public class NCServer extends CachingServer {
 	 * @return boolean value representing if it's a singlet or not
 	 */
 	public boolean checkSinglet(Block block, NCClient requester) {
-		for(CachingClient client : clients) {
-			if(requester.getClientId() != client.getClientId() && 
-					client.cacheLookup(block.getData()) != -1) {
-				return false;
-			}
-		}
-		return true;
+		return isSinglet(block.getId(), requester.getClientId());
 	}
 	
 	/**
@@ -103,6 +85,6 @@ public class NCServer extends CachingServer {
 	 */
 	@Override
 	public boolean isMember(String data) {
-		return cacheLookup(data) != -1;
+		return cacheLookup(dictionary.lookup(data)) != -1;
 	}
 }
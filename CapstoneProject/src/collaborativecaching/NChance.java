@@ -1,8 +1,7 @@
 package collaborativecaching;
 
-import java.util.List;
-
 import simulation.Block;
+import simulation.Storage;
 
 /**
  * Class to implement the NChance algorithm by creating a system of clients and 
@@ -37,21 +36,23 @@ public class NChance extends CachingAlgorithm {
 	 * 
 	 * @param clientCaches data to be inserted in client caches
 	 * @param serverCache data to be inserted in server cache
-	 * @param serverDisk data to be inserted in server disk
+	 * @param serverDisk server disk filled with data
 	 */
 	@Override
 	public void warmup(Block[][] clientCaches, Block[] serverCache,
-			Block[] serverDisk) {
+			Storage serverDisk) {
 		clients = new NCClient[nClients];
 		server = new NCServer(1, serverCacheSize, serverDiskSize,
 				cacheReferenceTicks, diskToCacheTicks, networkHopTicks);
 		for(int i = 0; i < nClients; i++) {
 			clients[i] = new NCClient(i, clientCacheSize, 
 					cacheReferenceTicks, networkHopTicks, (NCServer)server);
+			setupClientCache((CachingClient) clients[i]);
 			clients[i].cacheWarmUp(clientCaches[i]);
 		}
 		((NCServer) server).updateClients((NCClient[])clients);
 		((NCServer) server).updateClientContents();
+		setupServerCache((CachingServer) server);
 		server.cacheWarmUp(serverCache);
 		server.diskWarmUp(serverDisk);
 	}
@@ -59,7 +60,7 @@ public class NChance extends CachingAlgorithm {
 	/**
 	 * Overridden method to execute NChance
 	 */
-	public void executeExperiment(List<String> requests) {
+	public void executeExperiment(int[] requests) {
 		System.out.println("Executing NChance for " + nClients + 
 				" cacheSize = "+ clientCacheSize + " diskSize = " + 
 				serverDiskSize);
@@ -37,43 +37,33 @@ public class RHClient extends CachingClient {
 	 */
 	public void updateSinglet(Block singlet, int victimChunkId) {
 		Block victimBlock = cache.getBlock(victimChunkId);
-		cache.update(victimChunkId, singlet);
-		// singlet.clients.add(this.clientId);
-		// victimBlock.clients.remove(this.clientId);
-		((RHServer) server).updateBlockClient(victimBlock);
+		replaceBlock(victimChunkId, singlet);
+		evictionPolicy.recordInsert(victimChunkId, singlet.getId());
 		server.updateCache(victimBlock);
 	}
 
 	/**
-	 * Overloaded method to update block according to the cache LRU count
+	 * Overloaded method to update block according to the eviction policy order
 	 * 
 	 * @param singlet to be updated
 	 */
 	public void updateSinglet(Block singlet) {
-		int min = MAX_LRU_COUNT;
 		int minIndex = -1;
-		// check for duplicate blocks in system and replace that block
-		for (int i = 0; i < cacheSize; i++) {
-			if (cacheLRUCount[i] < min
-					&& !((RHServer) server).checkSinglet(cache.getBlock(i),
-							this)) {
-				min = cacheLRUCount[i];
+		// check for duplicate blocks in system and replace the least 
+		// recently used one
+		for (int i = evictionPolicy.nextVictim(-1); i != -1;
+				i = evictionPolicy.nextVictim(i)) {
+			if (!((RHServer) server).checkSinglet(cache.getBlock(i), this)) {
 				minIndex = i;
+				break;
 			}
 		}
 		// if no duplicate block in this cache then replace singlet
 		if (minIndex == -1) {
-			min = MAX_LRU_COUNT;
-			for (int i = 0; i < cacheSize; i++) {
-				if (cacheLRUCount[i] <= min) {
-					min = cacheLRUCount[i];
-					minIndex = i;
-				}
-			}
+			minIndex = evictionPolicy.selectVictim(singlet.getId());
 		}
-		cache.update(minIndex, singlet);
-		((RHServer) server).updateBlockClient(cache.getBlock(minIndex));
-		cacheLRUCount[minIndex] = MAX_LRU_COUNT;
+		replaceBlock(minIndex, singlet);
+		evictionPolicy.recordInsert(minIndex, singlet.getId());
 	}
 
 	/*
@@ -83,18 +73,11 @@ public class RHClient extends CachingClient {
 	 */
 	@Override
 	public void updateCache(Block data) {
-		int min = MAX_LRU_COUNT;
-		int minIndex = -1;
 		boolean forwardedSinglet = false;
-		// get the min from the LRU list
-		for (int i = 0; i < cacheSize; i++) {
-			if (cacheLRUCount[i] < min) {
-				min = cacheLRUCount[i];
-				minIndex = i;
-			}
-		}
-		Block ret = cache.getBlock(minIndex);
-		if (min >= 0 && min < 10) {
+		// get the block chosen by the eviction policy
+		int minIndex = evictionPolicy.selectVictim(data.getId());
+		if (minIndex != -1) {
+			Block ret = cache.getBlock(minIndex);
 			// check if block is singlet and forward accordingly
 			if (((RHServer) server).checkSinglet(ret, this)) {
 				int victimChunkId = ((RHServer) server).selectVictim(this);
@@ -105,15 +88,13 @@ public class RHClient extends CachingClient {
 							continueRobinhood(ret, victimChunkId);
 				}
 			} else {
-				ret.recirculationCount = RHClient.reCirculationCount;
+				ret.setRecirculationCount(RHClient.reCirculationCount);
 			}
-			cache.update(minIndex, data);
-			cacheLRUCount[minIndex] = MAX_LRU_COUNT;
+			replaceBlock(minIndex, data);
+			evictionPolicy.recordInsert(minIndex, data.getId());
 			if (!forwardedSinglet) {
 				server.updateCache(ret);
 			}
-			((RHServer) server).updateBlockClient(data);
-			((RHServer) server).updateBlockClient(ret);
 		}
 	}
 
@@ -125,20 +106,21 @@ public class RHClient extends CachingClient {
 	 * @param cacheMiss cache miss associated with the current request
 	 * @param cacheHit cache hit associated with the current request
 	 * @param requester client who requested the data
-	 * @param block data requested
+	 * @param block block id of data requested
 	 * @param sentByServer flag to determine if the request is sent by the 
 	 * 		  server
 	 * @return boolean to represent status  
 	 */
 	public boolean requestData(int ticksPerRequest, int cacheMiss, 
 			int localCacheHit, int globalCacheHit, CachingClient requester,
-			String block, boolean sentByServer) {
+			int block, boolean sentByServer) {
 		int index = cacheLookup(block);
 		ticksPerRequest += cacheReferenceTicks;
+		server.recordService((int) clientId, ticksPerRequest,
+				cacheReferenceTicks);
 		if(requester == null) {
 			requester = this;
 		}
-		decrementCacheLRU(index);
 		// if found in current client cache the return to requester
 		if(index != -1) {
 			ticksPerRequest += networkHopTicks;
@@ -146,18 +128,15 @@ public class RHClient extends CachingClient {
 				localCacheHit += 1;
 			else
 				globalCacheHit += 1;
-			if(cacheLRUCount[index] != MAX_LRU_COUNT) {
-				cacheLRUCount[index] += 1;
-			}
-			if(cache.getBlock(index).recirculationCount > -1) {
-				cache.getBlock(index).recirculationCount = 
-						RHClient.reCirculationCount; 
+			touchCache(index);
+			if(cache.getBlock(index).getRecirculationCount() > -1) {
+				cache.getBlock(index).setRecirculationCount(
+						RHClient.reCirculationCount);
 			}
 			requester.setResponse(cache.getBlock(index), ticksPerRequest,
 					cacheMiss, localCacheHit, globalCacheHit);
 		} else {
 			if (sentByServer) {
-				server.updateClientContents();
 				return false;
 			}
 			ticksPerRequest += networkHopTicks;
@@ -174,7 +153,7 @@ public class RHClient extends CachingClient {
 	 */
 	@Override
 	public boolean hasMember(String data) {
-		return (cacheLookup(data) != -1);
+		return (cacheLookup(dictionary.lookup(data)) != -1);
 	}
 	
 	/**
@@ -185,13 +164,13 @@ public class RHClient extends CachingClient {
 	 * @return
 	 */
 	private boolean switchToNChance(Block ret) {
-		if(ret.recirculationCount == -1) {
-			ret.recirculationCount = RHClient.reCirculationCount;
+		if(ret.getRecirculationCount() == -1) {
+			ret.setRecirculationCount(RHClient.reCirculationCount);
 			((RHServer) server).nChanceForward(ret, this);
 			return true;
-		} else if(ret.recirculationCount > 0) {
-			ret.recirculationCount -= 1;
-			if(ret.recirculationCount != 0) {
+		} else if(ret.getRecirculationCount() > 0) {
+			ret.setRecirculationCount(ret.getRecirculationCount() - 1);
+			if(ret.getRecirculationCount() != 0) {
 				((RHServer) server).nChanceForward(ret, this);
 				return true;
 			}
@@ -208,13 +187,13 @@ public class RHClient extends CachingClient {
 	 * @return
 	 */
 	private boolean continueRobinhood(Block singlet, int victimChunkId) {
-		if (singlet.recirculationCount > 0) {
-			singlet.recirculationCount -= 1;
+		if (singlet.getRecirculationCount() > 0) {
+			singlet.setRecirculationCount(singlet.getRecirculationCount() - 1);
 			((RHServer) server).victimClient.updateSinglet(singlet,
 					victimChunkId);
 			return true;
-		} else if (singlet.recirculationCount < 0) {
-			singlet.recirculationCount = RHClient.reCirculationCount;
+		} else if (singlet.getRecirculationCount() < 0) {
+			singlet.setRecirculationCount(RHClient.reCirculationCount);
 			((RHServer) server).victimClient.updateSinglet(singlet,
 					victimChunkId);
 			return true;
@@ -3,8 +3,8 @@
  */
 package collaborativecaching;
 
-import java.util.Random;
 import simulation.Block;
+import simulation.ClientIdSet;
 
 /**
  * Sub class of CachingServer class to form server used in Robinhood algorithm.
@@ -17,6 +17,9 @@ public class RHServer extends CachingServer {
 
 	/** Server chooses this client as victim having victim block */
 	public RHClient victimClient;
+	
+	/** Disk blocks ordered by the number of clients caching them */
+	private IndexedMaxHeap replicaHeap;
 
 	/**
 	 * Creates server object for Robinhood algorithm 
@@ -36,32 +39,42 @@ public class RHServer extends CachingServer {
 	}
 
 	/**
-	 * Add the clients containing the block in the block hash set
+	 * Build the replica heap of disk blocks from the holders directory
 	 */
 	public void updateDataClients() {
+		// data stored twice on disk is counted at its lookup slot only
+		replicaHeap = new IndexedMaxHeap(diskSize);
 		for (int i = 0; i < diskSize; i++) {
-			Block block = disk.getBlock(i);
-			for (CachingClient client : clients) {
-				if (client.hasMember(block.getData())) {
-					block.clients.add(client.getClientId());
-				}
+			int id = disk.getId(i);
+			if (disk.lookup(id) == i) {
+				replicaHeap.setPriority(i, getReplicaCount(id));
 			}
 		}
 	}
-
+	
+	@Override
+	public void addHolder(int id, long clientId) {
+		super.addHolder(id, clientId);
+		updateReplicaCount(id);
+	}
+	
+	@Override
+	public void removeHolder(int id, long clientId) {
+		super.removeHolder(id, clientId);
+		updateReplicaCount(id);
+	}
+	
 	/**
-	 * Update the set of clients containing the block.
+	 * Move the disk block of the data in the replica heap after a client 
+	 * cached or replaced it
 	 * 
-	 * @param block to be updated
+	 * @param id block id of data whose holders changed
 	 */
-	public void updateBlockClient(Block block) {
-		for (CachingClient client : clients) {
-			if (client.hasMember(block.getData())) {
-				block.clients.add(client.getClientId());
-			} else {
-				if (block.clients.contains(client.getClientId())) {
-					block.clients.remove(client.getClientId());
-				}
+	private void updateReplicaCount(int id) {
+		if (replicaHeap != null) {
+			int index = disk.lookup(id);
+			if (index != -1) {
+				replicaHeap.setPriority(index, getReplicaCount(id));
 			}
 		}
 	}
@@ -75,7 +88,6 @@ public class RHServer extends CachingServer {
 	 * @param sender client sending the block
 	 */
 	public void nChanceForward(Block block, CachingClient sender) {
-		Random random = new Random();
 		long clientId = sender.getClientId();
 		int clientCovered = 0;
 		while (clientCovered < nClients) {
@@ -87,7 +99,6 @@ public class RHServer extends CachingServer {
 		}
 		if (clientId != sender.getClientId()) {
 			((RHClient) clients[(int) clientId]).updateSinglet(block);
-			super.updateClientContents();
 		}
 	}
 
@@ -100,27 +111,16 @@ public class RHServer extends CachingServer {
 	 * @return index of singlet
 	 */
 	public int selectVictim(RHClient requester) {
-		Block victimChunk = null;
-		long max = 0;
 		int index = -1;
-		for (int i = 0; i < diskSize; i++) {
-			if (max < disk.getBlock(i).clients.size()) {
-				max = disk.getBlock(i).clients.size();
-				victimChunk = disk.getBlock(i);
-			}
-		}
-		updateBlockClient(victimChunk);
-		if (victimChunk.clients.size() != 0) {
-			int clientIndex = new Random().nextInt(victimChunk.clients.size());
-			long victimClientId = (Long) victimChunk.clients.toArray()[clientIndex];
-
-			for (CachingClient client : clients) {
-				if (client.getClientId() == victimClientId) {
-					victimClient = (RHClient) client;
-					break;
-				}
-			}
-			index = victimClient.cacheLookup(victimChunk.getData());
+		// most replicated disk block is at the top of the replica heap
+		int victimChunkId = replicaHeap.peek();
+		if (victimChunkId != -1
+				&& replicaHeap.getPriority(victimChunkId) != 0) {
+			int victimId = disk.getId(victimChunkId);
+			ClientIdSet holders = getHolders(victimId);
+			int clientIndex = random.nextInt(holders.size());
+			victimClient = (RHClient) clients[holders.get(clientIndex)];
+			index = victimClient.cacheLookup(victimId);
 		}
 		return index;
 	}
@@ -134,13 +134,7 @@ public class RHServer extends CachingServer {
 	 * @return status if block is singlet or not
 	 */
 	public boolean checkSinglet(Block block, RHClient requester) {
-		for (CachingClient client : clients) {
-			if (requester.getClientId() != client.getClientId()
-					&& client.cacheLookup(block.getData()) != -1) {
-				return false;
-			}
-		}
-		return true;
+		return isSinglet(block.getId(), requester.getClientId());
 	}
 
 	/*
@@ -150,18 +144,11 @@ public class RHServer extends CachingServer {
 	 */
 	@Override
 	public void updateCache(Block data) {
-		int min = MAX_LRU_COUNT;
-		int minIndex = -1;
-		// find the cache block with min LRU count
-		for (int i = 0; i < cacheSize; i++) {
-			if (cacheLRUCount[i] < min) {
-				min = cacheLRUCount[i];
-				minIndex = i;
-			}
-		}
-		if (min > -1 && min < 10) {
+		// replace the block chosen by the eviction policy
+		int minIndex = evictionPolicy.selectVictim(data.getId());
+		if (minIndex != -1) {
 			cache.update(minIndex, data);
-			cacheLRUCount[minIndex] = MAX_LRU_COUNT;
+			evictionPolicy.recordInsert(minIndex, data.getId());
 		}
 	}
 
@@ -172,7 +159,7 @@ public class RHServer extends CachingServer {
 	 */
 	@Override
 	public boolean isMember(String data) {
-		return cacheLookup(data) != -1;
+		return cacheLookup(dictionary.lookup(data)) != -1;
 	}
 
 }
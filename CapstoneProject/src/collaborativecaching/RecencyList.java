@@ -0,0 +1,206 @@
+package collaborativecaching;
+
+import java.util.Random;
+
+/**
+ * Recency order of the slots of a cache kept as doubly linked lists over the
+ * slot indices. Slots can be partitioned into several lists, for example the
+ * segments of an eviction policy, and each slot is in at most one list.
+ * Referencing a slot moves it to the most recent end of its list and the
+ * least recently used slot of a list is at the other end, so both are
+ * constant time operations.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class RecencyList {
+
+	/** Next more recently used slot of each slot, -1 for the most recent */
+	private int[] newer;
+
+	/** Next less recently used slot of each slot, -1 for the least recent */
+	private int[] older;
+
+	/** List holding each slot, -1 if the slot is in no list */
+	private int[] listOf;
+
+	/** Most recently used slot of each list */
+	private int[] mostRecent;
+
+	/** Least recently used slot of each list */
+	private int[] leastRecent;
+
+	/** Number of slots in each list */
+	private int[] sizes;
+
+	/**
+	 * Creates one recency list of all slots where slot 0 is the least
+	 * recently used and slot size - 1 the most recently used
+	 *
+	 * @param size number of slots
+	 */
+	public RecencyList(int size) {
+		this(size, 1);
+		for(int i = 0; i < size; i++) {
+			add(0, i);
+		}
+	}
+
+	/**
+	 * Creates empty recency lists over the given number of slots
+	 *
+	 * @param capacity number of slots
+	 * @param lists number of lists
+	 */
+	public RecencyList(int capacity, int lists) {
+		newer = new int[capacity];
+		older = new int[capacity];
+		listOf = new int[capacity];
+		mostRecent = new int[lists];
+		leastRecent = new int[lists];
+		sizes = new int[lists];
+		for(int i = 0; i < capacity; i++) {
+			listOf[i] = -1;
+		}
+		for(int i = 0; i < lists; i++) {
+			mostRecent[i] = -1;
+			leastRecent[i] = -1;
+		}
+	}
+
+	/**
+	 * Gets the slots in random order
+	 *
+	 * @param size number of slots
+	 * @param random random generator
+	 * @return permutation of 0 to size - 1
+	 */
+	public static int[] randomOrder(int size, Random random) {
+		int[] order = new int[size];
+		for(int i = 0; i < size; i++) {
+			int j = random.nextInt(i + 1);
+			order[i] = order[j];
+			order[j] = i;
+		}
+		return order;
+	}
+
+	/**
+	 * Orders the slots of each list randomly so that a warmed up cache does
+	 * not start with the recency of its fill order
+	 *
+	 * @param random random generator
+	 */
+	public void shuffle(Random random) {
+		for(int list = 0; list < sizes.length; list++) {
+			int[] slots = new int[sizes[list]];
+			int i = 0;
+			for(int slot = leastRecent[list]; slot != -1; slot = newer[slot]) {
+				slots[i++] = slot;
+			}
+			for(int slot : slots) {
+				remove(slot);
+			}
+			for(int index : randomOrder(slots.length, random)) {
+				add(list, slots[index]);
+			}
+		}
+	}
+
+	/**
+	 * Adds the slot to the most recent end of the list
+	 *
+	 * @param list list to be added to
+	 * @param slot slot which is in no list
+	 */
+	public void add(int list, int slot) {
+		newer[slot] = -1;
+		older[slot] = mostRecent[list];
+		if(mostRecent[list] == -1) {
+			leastRecent[list] = slot;
+		} else {
+			newer[mostRecent[list]] = slot;
+		}
+		mostRecent[list] = slot;
+		listOf[slot] = list;
+		sizes[list] += 1;
+	}
+
+	/**
+	 * Removes the slot from its list
+	 *
+	 * @param slot slot to be removed
+	 */
+	public void remove(int slot) {
+		int list = listOf[slot];
+		if(list == -1) {
+			return;
+		}
+		if(newer[slot] == -1) {
+			mostRecent[list] = older[slot];
+		} else {
+			older[newer[slot]] = older[slot];
+		}
+		if(older[slot] == -1) {
+			leastRecent[list] = newer[slot];
+		} else {
+			newer[older[slot]] = newer[slot];
+		}
+		listOf[slot] = -1;
+		sizes[list] -= 1;
+	}
+
+	/**
+	 * Marks the slot as most recently used in its list
+	 *
+	 * @param slot referenced slot
+	 */
+	public void touch(int slot) {
+		int list = listOf[slot];
+		if(list != -1 && slot != mostRecent[list]) {
+			remove(slot);
+			add(list, slot);
+		}
+	}
+
+	/**
+	 * Get the list holding the slot
+	 *
+	 * @param slot slot
+	 * @return list or -1 if the slot is in no list
+	 */
+	public int listOf(int slot) {
+		return listOf[slot];
+	}
+
+	/**
+	 * Get the least recently used slot of the list
+	 *
+	 * @param list list
+	 * @return slot or -1 if the list is empty
+	 */
+	public int leastRecent(int list) {
+		return leastRecent[list];
+	}
+
+	/**
+	 * Get the slot used next after the given slot in its list, used to walk
+	 * a list from least to most recently used
+	 *
+	 * @param slot current slot
+	 * @return next more recently used slot or -1
+	 */
+	public int newer(int slot) {
+		return newer[slot];
+	}
+
+	/**
+	 * Get the number of slots in the list
+	 *
+	 * @param list list
+	 * @return size of the list
+	 */
+	public int size(int list) {
+		return sizes[list];
+	}
+}
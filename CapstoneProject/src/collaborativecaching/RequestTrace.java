@@ -0,0 +1,108 @@
+package collaborativecaching;
+
+import java.util.Arrays;
+
+/**
+ * Service stages of one request recorded while a caching algorithm serves
+ * it. Each stage is a node which spent ticks on the request, along with the
+ * ticks of the request once the node was done. The gaps between stages are
+ * the network transfers. The discrete event simulator replays the stages
+ * through the nodes to add the queueing delay.
+ * 
+ * @author Shridhar Bhalekar
+ *
+ */
+public class RequestTrace {
+
+	/** Node of the server cache */
+	public static final int SERVER_CACHE = -1;
+
+	/** Node of the server disk */
+	public static final int SERVER_DISK = -2;
+
+	/** Node of each stage, client id or server node */
+	private int[] nodes;
+
+	/** Ticks of the request at the end of each stage */
+	private int[] endTicks;
+
+	/** Ticks spent at the node of each stage */
+	private int[] serviceTicks;
+
+	/** Number of stages recorded */
+	private int stageCount;
+
+	/** Ticks of the request when the response reached the requester */
+	private int responseTicks;
+
+	/** Time at which the request arrived in the simulation */
+	private double arrivalTime;
+
+	/**
+	 * Creates empty trace
+	 */
+	public RequestTrace() {
+		nodes = new int[4];
+		endTicks = new int[4];
+		serviceTicks = new int[4];
+	}
+
+	/**
+	 * Records a stage of the request
+	 * 
+	 * @param node client id or server node
+	 * @param ticks ticks of the request including the stage
+	 * @param service ticks spent at the node
+	 */
+	public void record(int node, int ticks, int service) {
+		if (stageCount == nodes.length) {
+			nodes = Arrays.copyOf(nodes, 2 * stageCount);
+			endTicks = Arrays.copyOf(endTicks, 2 * stageCount);
+			serviceTicks = Arrays.copyOf(serviceTicks, 2 * stageCount);
+		}
+		nodes[stageCount] = node;
+		endTicks[stageCount] = ticks;
+		serviceTicks[stageCount] = service;
+		stageCount++;
+	}
+
+	public int getStageCount() {
+		return stageCount;
+	}
+
+	public int getNode(int stage) {
+		return nodes[stage];
+	}
+
+	public int getServiceTicks(int stage) {
+		return serviceTicks[stage];
+	}
+
+	/**
+	 * Get the network ticks before a stage starts. A stage reached in
+	 * parallel with the previous one, like a peer probed by the server,
+	 * starts without delay.
+	 * 
+	 * @param stage stage of request, stage count for the delay before the
+	 * response reaches the requester
+	 * @return ticks between the previous stage and this stage
+	 */
+	public int getDelay(int stage) {
+		int previousEnd = (stage == 0) ? 0 : endTicks[stage - 1];
+		int start = (stage == stageCount) ? responseTicks
+				: endTicks[stage] - serviceTicks[stage];
+		return Math.max(0, start - previousEnd);
+	}
+
+	public void setResponseTicks(int responseTicks) {
+		this.responseTicks = responseTicks;
+	}
+
+	public double getArrivalTime() {
+		return arrivalTime;
+	}
+
+	public void setArrivalTime(double arrivalTime) {
+		this.arrivalTime = arrivalTime;
+	}
+}
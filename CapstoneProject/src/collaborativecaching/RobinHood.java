@@ -1,8 +1,7 @@
 package collaborativecaching;
 
-import java.util.List;
-
 import simulation.Block;
+import simulation.Storage;
 
 /**
  * Class to implement the Robinhood algorithm by creating a system of clients 
@@ -33,17 +32,19 @@ public class RobinHood extends CachingAlgorithm{
 
 	@Override
 	public void warmup(Block[][] clientCaches, Block[] serverCache,
-			Block[] serverDisk) {
+			Storage serverDisk) {
 		clients = new RHClient[nClients];
 		server = new RHServer(1, serverCacheSize, serverDiskSize,
 				cacheReferenceTicks, diskToCacheTicks, networkHopTicks);
 		for(int i = 0; i < nClients; i++) {
 			clients[i] = new RHClient(i, clientCacheSize, 
 					cacheReferenceTicks, networkHopTicks, (RHServer)server);
+			setupClientCache((CachingClient) clients[i]);
 			clients[i].cacheWarmUp(clientCaches[i]);
 		}
 		((RHServer) server).updateClients((RHClient[])clients);
 		((RHServer) server).updateClientContents();
+		setupServerCache((CachingServer) server);
 		server.cacheWarmUp(serverCache);
 		server.diskWarmUp(serverDisk);
 		((RHServer) server).updateDataClients();
@@ -52,7 +53,7 @@ public class RobinHood extends CachingAlgorithm{
 	/**
 	 * Overridden method to execute Robinhood
 	 */
-	public void executeExperiment(List<String> requests) {
+	public void executeExperiment(int[] requests) {
 		System.out.println("Executing Robinhood for " + nClients + 
 				" cacheSize = "+ clientCacheSize + " diskSize = " + 
 				serverDiskSize);
@@ -1,15 +1,15 @@
 
 package collaborativecaching;
 
-import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
-import java.util.Set;
 
+import bloomfilters.CuckooFilter;
+import bloomfilters.ImportanceArray;
+import bloomfilters.NibbleCounterArray;
 import simulation.Block;
 import simulation.Client;
-import simulation.DataHash;
+import simulation.HashFamily;
 
 /**
  * Sub class of CachingClient class to form clients used in Summary Cache
@@ -21,20 +21,47 @@ import simulation.DataHash;
  */
 public class SCClient extends CachingClient {
 
-	/** Array representing importance aware bloom filter */
-	private int[] iBloomFilter;
+	/** Packed cells representing importance aware bloom filter */
+	private ImportanceArray iBloomFilter;
 
-	/** Array representing counting bloom filter */
-	private int[] cBloomFilter;
+	/** Packed counters representing counting bloom filter */
+	private NibbleCounterArray cBloomFilter;
+
+	/** Cuckoo filter used as summary instead of the two bloom filters */
+	private CuckooFilter cuckooFilter;
+
+	/** Number of probes of the summary */
+	private long probes;
+
+	/** Total time spent in the peer probe passes in nanoseconds */
+	private long probeNanos;
+
+	/** Blocks the full cuckoo filter could not insert */
+	private long failedInserts;
+
+	/** Peers probed positive which did not have the data */
+	private long peerFalsePositives;
+
+	/** Peers probed which did not have the data */
+	private long peerNegativeProbes;
 
 	/** Map to store the peers of this client */
 	private Map<Long, SCClient> peers;
 
+	/** Peers in probing order */
+	private SCClient[] peerOrder;
+
+	/** Summary answer of each peer in the current probe pass */
+	private boolean[] peerHits;
+
 	/** Size of bloom filter */
 	private int bloomFilterSize;
 
-	/** Maximum counter value for the counting bloom filter */
-	private final int maxCounter = 15;
+	/** Number of hash functions of bloom filter */
+	private int hashCount;
+
+	/** Hash family used to get the bloom filter indices */
+	private HashFamily hashFamily;
 
 	/** Importance function criteria */
 	private final int maxImportanceValue = 20;
@@ -44,7 +71,7 @@ public class SCClient extends CachingClient {
 	/** Maximum value that can be stored in bloom filter */
 	private final int M = 5;
 
-	/** Random indexes to be decremented by 1 */
+	/** Decrements applied to the bloom filter per insert */
 	private int P;
 
 	/**
@@ -71,19 +98,86 @@ public class SCClient extends CachingClient {
 			if (peer.getClientId() != this.clientId)
 				this.peers.put(peer.getClientId(), (SCClient) peer);
 		}
+		peerOrder = this.peers.values().toArray(new SCClient[0]);
+		peerHits = new boolean[peerOrder.length];
 	}
 
 	/**
 	 * Method to initialize the bloom filter size
 	 * @param bloomFilterSize
+	 * @param hashCount number of hash functions
+	 * @param hashFamily hash functions for bloom filter indices
 	 */
-	public void setBloomFilterSize(int bloomFilterSize) {
+	public void setBloomFilterSize(int bloomFilterSize, int hashCount,
+			HashFamily hashFamily) {
 		this.bloomFilterSize = bloomFilterSize;
-		this.iBloomFilter = new int[bloomFilterSize];
-		this.cBloomFilter = new int[bloomFilterSize];
+		this.hashCount = hashCount;
+		this.hashFamily = hashFamily;
+		this.iBloomFilter = new ImportanceArray(bloomFilterSize);
+		this.cBloomFilter = new NibbleCounterArray(bloomFilterSize);
 		P = (int) (0.1 * (double) this.bloomFilterSize);
 	}
 
+	/**
+	 * Method to use a cuckoo filter as summary of this client
+	 * @param cuckooFilter
+	 */
+	public void setCuckooFilter(CuckooFilter cuckooFilter) {
+		this.cuckooFilter = cuckooFilter;
+	}
+
+	/**
+	 * Method to return memory used by the summary of this client
+	 * @return summary size in bytes
+	 */
+	public long getSummaryBytes() {
+		if (cuckooFilter != null) {
+			return cuckooFilter.sizeInBytes();
+		}
+		return iBloomFilter.sizeInBytes() + cBloomFilter.sizeInBytes();
+	}
+
+	/**
+	 * Method to return number of probes of the summary
+	 * @return probe count
+	 */
+	public long getProbes() {
+		return probes;
+	}
+
+	/**
+	 * Method to return total time spent in the peer probe passes
+	 * @return time in nanoseconds
+	 */
+	public long getProbeNanos() {
+		return probeNanos;
+	}
+
+	/**
+	 * Method to return number of blocks missing from the cuckoo summary
+	 * because the filter was full when they were inserted
+	 * @return failed insert count
+	 */
+	public long getFailedInserts() {
+		return failedInserts;
+	}
+
+	/**
+	 * Method to return number of peers probed positive without the data
+	 * @return false positive count
+	 */
+	public long getPeerFalsePositives() {
+		return peerFalsePositives;
+	}
+
+	/**
+	 * Method to return number of peers probed without the data
+	 * @return negative probe count
+	 */
+	public long getPeerNegativeProbes() {
+		return peerNegativeProbes;
+	}
+
 	/**
 	 * Overriden method to warm up client cache contents
 	 */
@@ -102,47 +196,45 @@ public class SCClient extends CachingClient {
 	 * @param block
 	 */
 	public void deleteCBF(String block) {
-		if (hasMember(block)) {
+		if (summaryHasMember(block)) {
 			importanceValues.remove(block);
+			if (cuckooFilter != null) {
+				cuckooFilter.delete(block);
+				return;
+			}
 			int[] indexes = getHashIndexes(block);
 			for (int i : indexes) {
-				if (cBloomFilter[i] > 0) {
-					cBloomFilter[i] -= 1;
-				}
+				cBloomFilter.decrement(i);
 			}
 		}
 	}
 
 	/**
 	 * Updates the contents of cache and bloom filter. First checks if the data
-	 * is already present in cache. If not then decrement values at P random
-	 * indices in bloom filter by 1 and set the k indices to importance value
-	 * returned by importance function
+	 * is already present in cache. If not then age the bloom filter by P
+	 * decrements, which on average decrements P cells by 1, and set the k
+	 * indices to importance value returned by importance function
 	 * 
 	 * @param block
 	 *            to be updated in cache
 	 */
 	private void addBF(String block) {
-		Random random = new Random();
-		int[] indexes = getHashIndexes(block);
-		int counter = 0;
-		int index = random.nextInt(bloomFilterSize);
-		while (counter != P) {
-			if (iBloomFilter[index % bloomFilterSize] > 0) {
-				iBloomFilter[index % bloomFilterSize] -= 1;
+		if (cuckooFilter != null) {
+			// the block is then answered absent to peers
+			if (!cuckooFilter.add(block)) {
+				failedInserts += 1;
 			}
-			index += 1;
-			counter += 1;
+			return;
 		}
+		int[] indexes = getHashIndexes(block);
+		iBloomFilter.age(P);
 		for (int i : indexes) {
 			if ((importanceFunction(block) < M / 2)
-					&& (iBloomFilter[i] < M / 2))
-				iBloomFilter[i] = M / 2;
+					&& (iBloomFilter.get(i) < M / 2))
+				iBloomFilter.set(i, M / 2);
 			else
-				iBloomFilter[i] = M;
-			if (cBloomFilter[i] < maxCounter) {
-				cBloomFilter[i] += 1;
-			}
+				iBloomFilter.set(i, M);
+			cBloomFilter.increment(i);
 		}
 	}
 
@@ -155,17 +247,7 @@ public class SCClient extends CachingClient {
 	 * @return array of indices in bloom filter
 	 */
 	private int[] getHashIndexes(String block) {
-		int[] indexes = new int[5];
-		BigInteger bfSize = new BigInteger(
-				new Integer(bloomFilterSize).toString());
-		DataHash hash = new DataHash(block);
-		indexes[0] = hash.sha1().mod(bfSize).intValue();
-		indexes[1] = hash.md5().mod(bfSize).intValue();
-		indexes[2] = hash.sha256().mod(bfSize).intValue();
-		indexes[3] = hash.sha384().mod(bfSize).intValue();
-		indexes[4] = hash.djb2().mod(bfSize).intValue();
-
-		return indexes;
+		return hashFamily.getHashIndexes(block, hashCount, bloomFilterSize);
 	}
 
 	/**
@@ -177,7 +259,6 @@ public class SCClient extends CachingClient {
 	 */
 	private int importanceFunction(String data) {
 		Integer impVal = importanceValues.get(data);
-		Random random = new Random();
 		if (impVal == null) {
 			impVal = random.nextInt(maxImportanceValue);
 			importanceValues.put(data, impVal);
@@ -203,18 +284,20 @@ public class SCClient extends CachingClient {
 	 * @param requester
 	 *            client who requested the data
 	 * @param block
-	 *            data requested
+	 *            block id of data requested
 	 * @param sentByServer
 	 *            flag to determine if the request is sent by the server
 	 * @return boolean to represent status
 	 */
 	public boolean requestData(int ticksPerRequest, int cacheMiss,
 			int localCacheHit, int globalCacheHit, CachingClient requester,
-			String block, boolean sentByServer) {
+			int block, boolean sentByServer) {
 		int index = cacheLookup(block);
 		boolean toServer = false;
 		ticksPerRequest += cacheReferenceTicks;
-		decrementCacheLRU(index);
+		server.recordService((int) clientId, ticksPerRequest,
+				cacheReferenceTicks);
+		touchCache(index);
 		if (requester == null) {
 			requester = this;
 			if (index != -1) {
@@ -260,19 +343,28 @@ public class SCClient extends CachingClient {
 	 * @param requester
 	 *            client who requested the data
 	 * @param block
-	 *            data requested
+	 *            block id of data requested
 	 * @param sentByServer
 	 *            flag to determine if the request is sent by the server
 	 * @return boolean to represent status
 	 */
 	private boolean referencePeers(int ticksPerRequest, int cacheMiss,
 			int localCacheHit, int globalCacheHit, CachingClient requester,
-			String block, boolean sentByServer) {
+			int block, boolean sentByServer) {
 		boolean toServer = false;
-		Set<Long> clientIds = peers.keySet();
-		for (Long clientId : clientIds) {
-			CachingClient peer = peers.get(clientId);
-			if (peer.hasMember(block)) {
+		// summaries hash the data of the block
+		String data = dictionary.decode(block);
+		// forwarding does not change the summaries, so all peers are probed
+		// in one pass timed as a whole
+		long start = System.nanoTime();
+		for (int i = 0; i < peerOrder.length; i++) {
+			peerHits[i] = peerOrder[i].summaryHasMember(data);
+		}
+		probeNanos += System.nanoTime() - start;
+		probes += peerOrder.length;
+		for (int i = 0; i < peerOrder.length; i++) {
+			CachingClient peer = peerOrder[i];
+			if (peerHits[i]) {
 				toServer = peer.requestData(ticksPerRequest, cacheMiss,
 						localCacheHit, globalCacheHit, requester, block,
 						sentByServer);
@@ -280,6 +372,10 @@ public class SCClient extends CachingClient {
 					ticksPerRequest += networkHopTicks;
 					break;
 				}
+				peerFalsePositives += 1;
+				peerNegativeProbes += 1;
+			} else {
+				peerNegativeProbes += 1;
 			}
 		}
 		return toServer;
@@ -298,9 +394,6 @@ public class SCClient extends CachingClient {
 	private void serverLocally(int ticksPerRequest, int cacheMiss,
 			int localCacheHit, int globalCacheHit, CachingClient requester,
 			int index) {
-		if (cacheLRUCount[index] != MAX_LRU_COUNT) {
-			cacheLRUCount[index] += 1;
-		}
 		ticksPerRequest += networkHopTicks;
 		requester.setResponse(cache.getBlock(index), ticksPerRequest,
 				cacheMiss, localCacheHit, globalCacheHit);
@@ -313,18 +406,11 @@ public class SCClient extends CachingClient {
 	 */
 	@Override
 	public void updateCache(Block data) {
-		int min = MAX_LRU_COUNT;
-		int minIndex = -1;
-		for (int i = 0; i < cacheSize; i++) {
-			if (cacheLRUCount[i] < min) {
-				min = cacheLRUCount[i];
-				minIndex = i;
-			}
-		}
-		if (min > -1 && min < 10) {
+		int minIndex = evictionPolicy.selectVictim(data.getId());
+		if (minIndex != -1) {
 			Block ret = cache.getBlock(minIndex);
-			cache.update(minIndex, data);
-			cacheLRUCount[minIndex] = MAX_LRU_COUNT;
+			replaceBlock(minIndex, data);
+			evictionPolicy.recordInsert(minIndex, data.getId());
 			deleteCBF(ret.getData());
 			addBF(data.getData());
 			// addCBF(data.getData());
@@ -334,9 +420,23 @@ public class SCClient extends CachingClient {
 
 	@Override
 	public boolean hasMember(String data) {
+		return summaryHasMember(data);
+	}
+
+	/**
+	 * Checks the data in the summary of this client
+	 * 
+	 * @param data
+	 *            query to fired
+	 * @return true if summary has the data
+	 */
+	private boolean summaryHasMember(String data) {
+		if (cuckooFilter != null) {
+			return cuckooFilter.contains(data);
+		}
 		int[] indexes = getHashIndexes(data);
 		for (int i : indexes) {
-			if (cBloomFilter[i] == 0 || iBloomFilter[i] == 0) {
+			if (cBloomFilter.get(i) == 0 || iBloomFilter.get(i) == 0) {
 				return false;
 			}
 		}
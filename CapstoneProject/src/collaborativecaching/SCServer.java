@@ -46,32 +46,38 @@ public class SCServer extends CachingServer {
 	 * @param requester
 	 *            client who requested the data
 	 * @param block
-	 *            data requested
+	 *            block id of data requested
 	 * @param sentByServer
 	 *            flag to determine if the request is sent by the server
 	 * @return boolean to represent status
 	 */
 	public boolean requestData(int ticksPerRequest, int cacheMiss,
 			int localCacheHit, int globalCacheHit, CachingClient requester,
-			String block, boolean sentByServer) {
+			int block, boolean sentByServer) {
 		int index = cacheLookup(block);
 		ticksPerRequest += cacheReferenceTicks;
+		recordService(RequestTrace.SERVER_CACHE, ticksPerRequest,
+				cacheReferenceTicks);
 		if(index != -1) {
 			globalCacheHit += 1;
 			ticksPerRequest += networkHopTicks;
-			if(cacheLRUCount[index] != MAX_LRU_COUNT) {
-				cacheLRUCount[index] += 1;
-			}
+			evictionPolicy.recordAccess(index);
 			requester.setResponse(cache.getBlock(index), ticksPerRequest,
 					cacheMiss, localCacheHit, globalCacheHit);
 			return true;
 		} else {
 			cacheMiss += 1;
 			ticksPerRequest += diskToCacheTicks;
-			index = disk.lookup(block);
-			requester.setResponse(disk.getBlock(index), ticksPerRequest,
-					cacheMiss, localCacheHit, globalCacheHit);
-			requester.updateCache(disk.getBlock(index));
+			recordService(RequestTrace.SERVER_DISK, ticksPerRequest,
+					diskToCacheTicks);
+			index = diskLookup(block);
+			if(index != -1) {
+				requester.setResponse(disk.getBlock(index), ticksPerRequest,
+						cacheMiss, localCacheHit, globalCacheHit);
+				if(requester.admit(disk.getBlock(index))) {
+					requester.updateCache(disk.getBlock(index));
+				}
+			}
 			return false;
 		}
 	}
@@ -80,17 +86,10 @@ public class SCServer extends CachingServer {
 	 */
 	@Override
 	public void updateCache(Block data) {
-		int min = MAX_LRU_COUNT;
-		int minIndex = -1;
-		for(int i = 0; i < cacheSize; i++) {
-			if(cacheLRUCount[i] < min) {
-				min = cacheLRUCount[i];
-				minIndex = i;
-			}
-		}
-		if(min > -1 && min < 10) {
+		int minIndex = evictionPolicy.selectVictim(data.getId());
+		if(minIndex != -1) {
 			cache.update(minIndex, data);
-			cacheLRUCount[minIndex] = MAX_LRU_COUNT;
+			evictionPolicy.recordInsert(minIndex, data.getId());
 		}
 	}
 
@@ -99,7 +98,7 @@ public class SCServer extends CachingServer {
 	 */
 	@Override
 	public boolean isMember(String data) {
-		return cache.lookup(data) == -1;
+		return cache.lookup(dictionary.lookup(data)) == -1;
 	}
 
 }
@@ -0,0 +1,25 @@
+package collaborativecaching;
+
+/**
+ * Client, server cache or server disk in the discrete event simulation.
+ * The node serves one request stage at a time in arrival order, so a stage
+ * reaching a busy node waits until the node is free.
+ * 
+ * @author Shridhar Bhalekar
+ *
+ */
+public class ServiceNode implements EventHandler {
+
+	/** Time until which the node serves earlier stages */
+	private double busyUntil;
+
+	@Override
+	public void handle(SimulationEvent event,
+			DiscreteEventSimulator simulator) {
+		double start = Math.max(simulator.getTime(), busyUntil);
+		busyUntil = start + event.getRequest().getServiceTicks(
+				event.getStage());
+		simulator.stageCompleted(event.getRequest(), event.getStage(),
+				busyUntil, start - simulator.getTime());
+	}
+}
@@ -0,0 +1,69 @@
+package collaborativecaching;
+
+/**
+ * Event of the discrete event simulation: a stage of a request reaching a
+ * handler at a time. Events of equal time are ordered by scheduling order.
+ * 
+ * @author Shridhar Bhalekar
+ *
+ */
+public class SimulationEvent implements Comparable<SimulationEvent> {
+
+	/** Time of the event in ticks */
+	private double time;
+
+	/** Scheduling order of the event */
+	private long sequence;
+
+	/** Handler the event is addressed to */
+	private EventHandler handler;
+
+	/** Request of the event */
+	private RequestTrace request;
+
+	/** Stage of the request reached */
+	private int stage;
+
+	/**
+	 * Creates event
+	 * 
+	 * @param time time of event in ticks
+	 * @param sequence scheduling order of the event
+	 * @param handler handler the event is addressed to
+	 * @param request request of the event, null for arrivals
+	 * @param stage stage of the request reached
+	 */
+	public SimulationEvent(double time, long sequence, EventHandler handler,
+			RequestTrace request, int stage) {
+		this.time = time;
+		this.sequence = sequence;
+		this.handler = handler;
+		this.request = request;
+		this.stage = stage;
+	}
+
+	public double getTime() {
+		return time;
+	}
+
+	public EventHandler getHandler() {
+		return handler;
+	}
+
+	public RequestTrace getRequest() {
+		return request;
+	}
+
+	public int getStage() {
+		return stage;
+	}
+
+	@Override
+	public int compareTo(SimulationEvent event) {
+		if (time != event.time) {
+			return (time < event.time) ? -1 : 1;
+		}
+		return (sequence < event.sequence) ? -1 
+				: ((sequence == event.sequence) ? 0 : 1);
+	}
+}
@@ -1,14 +1,22 @@
 package collaborativecaching;
 
-import java.util.List;
-
 import bloomfilters.ClientWithIBF;
+import bloomfilters.CuckooFilter;
+import bloomfilters.FilterSizing;
+import bloomfilters.ImportanceArray;
+import bloomfilters.NibbleCounterArray;
 import bloomfilters.ServerWithIBF;
 import simulation.Block;
+import simulation.BlockedHashFamily;
 import simulation.Client;
+import simulation.HashFamily;
+import simulation.HashIndexTable;
+import simulation.Storage;
 
 /**
- * Summary Cache with Importance Aware Bloom Filter
+ * Summary Cache with Importance Aware Bloom Filter. Client summaries are
+ * either an importance aware bloom filter paired with a counting bloom filter
+ * or a cuckoo filter using the same number of bits.
  * @author Shridhar Bhalekar
  *
  */
@@ -17,9 +25,31 @@ public class SummaryCache extends CachingAlgorithm {
 	 /** Size of bloom filter */
 	private int bloomFilterSize;
 	
+	/** Number of hash functions of bloom filter */
+	private int hashCount;
+	
 	/** Size of bloom filter as compared to cache size */
 	private static final double BLOOMFILTER_QUOTA = 1.0; 
 	
+	/** Bits of importance and counting bloom filter per filter slot */
+	private static final int SUMMARY_BITS_PER_SLOT =
+			ImportanceArray.BITS_PER_SLOT + NibbleCounterArray.BITS_PER_SLOT;
+	
+	/** Type of client summary */
+	private SummaryType summaryType;
+	
+	/** Average memory of client summary in bytes */
+	private double summaryBytes;
+	
+	/** Average time of a summary probe in nanoseconds */
+	private double probeNanos;
+	
+	/** False positive rate of peer summaries achieved in the experiment */
+	private double falsePositiveRate;
+	
+	/** Blocks the full cuckoo summaries of all clients could not insert */
+	private long failedInserts;
+	
 	/** 
 	 * Create object for executing Summary Cache algorithm
 	 * 
@@ -35,10 +65,30 @@ public class SummaryCache extends CachingAlgorithm {
 	public SummaryCache(int nClients, int clientCacheSize, int serverCacheSize,
 			int serverDiskSize, int cacheReferenceTicks, int diskToCacheTicks,
 			int networkHopTicks) {
+		this(nClients, clientCacheSize, serverCacheSize, serverDiskSize,
+				cacheReferenceTicks, diskToCacheTicks, networkHopTicks,
+				SummaryType.ImportanceCounting);
+	}
+	
+	/** 
+	 * Create object for executing Summary Cache algorithm with given type of
+	 * client summary
+	 * 
+	 * @param nClients total clients
+	 * @param clientCacheSize client cache size
+	 * @param serverCacheSize server cache size
+	 * @param serverDiskSize server disk size
+	 * @param cacheReferenceTicks ticks for cache reference
+	 * @param diskToCacheTicks ticks for disk reference
+	 * @param networkHopTicks ticks for network transfer
+	 * @param summaryType type of client summary
+	 */
+	public SummaryCache(int nClients, int clientCacheSize, int serverCacheSize,
+			int serverDiskSize, int cacheReferenceTicks, int diskToCacheTicks,
+			int networkHopTicks, SummaryType summaryType) {
 		super(nClients, clientCacheSize, serverCacheSize, serverDiskSize, 
 				cacheReferenceTicks, diskToCacheTicks, networkHopTicks);
-		this.bloomFilterSize = (int)(SummaryCache.BLOOMFILTER_QUOTA *
-				(double)this.clientCacheSize);
+		this.summaryType = summaryType;
 	}
 	
 	/**
@@ -46,32 +96,118 @@ public class SummaryCache extends CachingAlgorithm {
 	 * 
 	 * @param clientCaches data to be inserted in client caches
 	 * @param serverCache data to be inserted in server cache
-	 * @param serverDisk data to be inserted in server disk
+	 * @param serverDisk server disk filled with data
 	 */
 	public void warmup(Block[][] clientCaches, Block[] serverCache,
-			Block[] serverDisk) {
+			Storage serverDisk) {
 		clients = new SCClient[nClients];
+		FilterSizing sizing = FilterSizing.create(clientCacheSize,
+				SUMMARY_BITS_PER_SLOT, targetFalsePositiveRate,
+				filterMemoryBudget, (int)(SummaryCache.BLOOMFILTER_QUOTA *
+						(double)this.clientCacheSize));
+		bloomFilterSize = sizing.getBloomFilterSize();
+		hashCount = sizing.getHashCount();
 		server = new SCServer(1, serverCacheSize, serverDiskSize,
 				cacheReferenceTicks, diskToCacheTicks, networkHopTicks);
+		// blocked filters keep the indices of a block in one cache line of
+		// the counter array
+		HashFamily filterHashFamily = hashFamily;
+		if(blockedBloomFilter) {
+			filterHashFamily = new BlockedHashFamily(hashFamily,
+					NibbleCounterArray.SLOTS_PER_CACHE_LINE);
+		}
+		// all clients share the same filter geometry so indices and hashes
+		// of a block are computed once for the whole system
+		HashIndexTable indexTable = new HashIndexTable(filterHashFamily,
+				serverDiskSize);
+		// cuckoo filter gets the bits of the filter pair it replaces
+		int fingerprintBits = CuckooFilter.fingerprintBits(clientCacheSize,
+				(long) bloomFilterSize * SUMMARY_BITS_PER_SLOT);
+		if(summaryType == SummaryType.ImportanceCounting) {
+			indexTable.precompute(serverDisk, hashCount, bloomFilterSize);
+		} else {
+			indexTable.precomputeHash64(serverDisk);
+		}
 		for(int i = 0; i < nClients; i++) {
 			clients[i] = new SCClient(i, clientCacheSize, cacheReferenceTicks,
 					networkHopTicks, (SCServer)server);
-			((SCClient) clients[i]).setBloomFilterSize(bloomFilterSize);
+			if(summaryType == SummaryType.Cuckoo) {
+				((SCClient) clients[i]).setCuckooFilter(new CuckooFilter(
+						clientCacheSize, fingerprintBits, indexTable,
+						nextStream()));
+			} else {
+				((SCClient) clients[i]).setBloomFilterSize(bloomFilterSize,
+						hashCount, indexTable);
+			}
+			setupClientCache((CachingClient) clients[i]);
 			clients[i].cacheWarmUp(clientCaches[i]);
 		}
 		for(int i = 0; i < nClients; i++) {
 			((SCClient) clients[i]).setPeers(clients);
 		}
 //		((SCServer) server).updateClients((SCClient[])clients);
+		setupServerCache((CachingServer) server);
 		server.cacheWarmUp(serverCache);
 		server.diskWarmUp(serverDisk);
 	}
 	
 	@Override
-	public void executeExperiment(List<String> requests) {
-		System.out.println("Executing SummaryCache for " + nClients + 
-				" cacheSize = "+ clientCacheSize + " diskSize = " + 
-				serverDiskSize);
+	public void executeExperiment(int[] requests) {
+		System.out.println("Executing SummaryCache (" + summaryType + 
+				") for " + nClients + " cacheSize = "+ clientCacheSize + 
+				" diskSize = " + serverDiskSize);
 		super.executeExperiment(requests);
+		long bytes = 0;
+		long probes = 0;
+		long nanos = 0;
+		long falsePositives = 0;
+		long negativeProbes = 0;
+		failedInserts = 0;
+		for(Client client : clients) {
+			bytes += ((SCClient) client).getSummaryBytes();
+			probes += ((SCClient) client).getProbes();
+			nanos += ((SCClient) client).getProbeNanos();
+			falsePositives += ((SCClient) client).getPeerFalsePositives();
+			negativeProbes += ((SCClient) client).getPeerNegativeProbes();
+			failedInserts += ((SCClient) client).getFailedInserts();
+		}
+		summaryBytes = (double) bytes / (double) nClients;
+		probeNanos = (probes == 0) ? 0.0 : (double) nanos / (double) probes;
+		falsePositiveRate = (negativeProbes == 0) ? 0.0 :
+			(double) falsePositives / (double) negativeProbes;
+	}
+	
+	/**
+	 * Method to return false positive rate of peer summaries, that is the
+	 * fraction of peer probes for absent data answered positive
+	 * @return false positive rate
+	 */
+	public double getFalsePositiveRate() {
+		return falsePositiveRate;
+	}
+	
+	/**
+	 * Method to return number of blocks left out of the cuckoo summaries
+	 * because a filter was full, 0 for bloom filter summaries
+	 * @return failed insert count over all clients
+	 */
+	public long getFailedInserts() {
+		return failedInserts;
+	}
+	
+	/**
+	 * Method to return average memory of a client summary
+	 * @return summary size in bytes
+	 */
+	public double getSummaryBytes() {
+		return summaryBytes;
+	}
+	
+	/**
+	 * Method to return average time of a summary probe
+	 * @return probe time in nanoseconds
+	 */
+	public double getProbeNanos() {
+		return probeNanos;
 	}
 }
@@ -0,0 +1,15 @@
+package collaborativecaching;
+
+/**
+ * Types of cache summaries kept by Summary Cache clients
+ * 
+ * ImportanceCounting - importance aware bloom filter with counting bloom 
+ * filter for deletion
+ * Cuckoo - cuckoo filter which supports deletion natively
+ * 
+ * @author Shridhar Bhalekar
+ */
+public enum SummaryType {
+	ImportanceCounting,
+	Cuckoo
+}
@@ -0,0 +1,116 @@
+package collaborativecaching;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Random;
+
+import simulation.Block;
+
+/**
+ * 2Q replacement. New blocks enter a FIFO queue A1in and are replaced from it
+ * while it holds more than a quarter of the cache. Data replaced from A1in is
+ * remembered in the ghost queue A1out, and data brought in again while in
+ * A1out goes to the LRU queue Am of frequently used blocks.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class TwoQueuePolicy implements EvictionPolicy {
+
+	/** List of slots in A1in */
+	private static final int A1IN = 0;
+
+	/** List of slots in Am */
+	private static final int AM = 1;
+
+	/** Slots of A1in and Am */
+	private RecencyList queues;
+
+	/** Data replaced from A1in, oldest first */
+	private LinkedHashSet<Integer> a1out;
+
+	/** Block id of the data in each slot */
+	private int[] keys;
+
+	/** Size of A1in above which it is replaced from */
+	private int kin;
+
+	/** Maximum size of A1out */
+	private int kout;
+
+	/**
+	 * Creates 2Q policy for a cache
+	 *
+	 * @param capacity number of slots in cache
+	 */
+	public TwoQueuePolicy(int capacity) {
+		queues = new RecencyList(capacity, 2);
+		a1out = new LinkedHashSet<Integer>();
+		keys = new int[capacity];
+		Arrays.fill(keys, -1);
+		kin = Math.max(1, capacity / 4);
+		kout = Math.max(1, capacity / 2);
+	}
+
+	@Override
+	public void warmUp(Block[] contents, Random random) {
+		int added = 0;
+		for(int slot : RecencyList.randomOrder(keys.length, random)) {
+			keys[slot] = contents[slot].getId();
+			queues.add((added++ < kin) ? A1IN : AM, slot);
+		}
+	}
+
+	@Override
+	public void recordAccess(int slot) {
+		if(queues.listOf(slot) == AM) {
+			queues.touch(slot);
+		}
+	}
+
+	@Override
+	public int selectVictim(int id) {
+		if(queues.size(A1IN) > kin || queues.size(AM) == 0) {
+			return queues.leastRecent(A1IN);
+		}
+		return queues.leastRecent(AM);
+	}
+
+	@Override
+	public int peekVictim(int id) {
+		return selectVictim(id);
+	}
+
+	@Override
+	public int nextVictim(int slot) {
+		if(slot == -1) {
+			return (queues.size(A1IN) > 0) ? queues.leastRecent(A1IN)
+					: queues.leastRecent(AM);
+		}
+		int next = queues.newer(slot);
+		if(next == -1 && queues.listOf(slot) == A1IN) {
+			return queues.leastRecent(AM);
+		}
+		return next;
+	}
+
+	@Override
+	public void recordInsert(int slot, int id) {
+		if(queues.listOf(slot) == A1IN && keys[slot] != -1) {
+			a1out.add(keys[slot]);
+			if(a1out.size() > kout) {
+				Iterator<Integer> oldest = a1out.iterator();
+				oldest.next();
+				oldest.remove();
+			}
+		}
+		queues.remove(slot);
+		keys[slot] = id;
+		if(a1out.remove(id)) {
+			queues.add(AM, slot);
+		} else {
+			queues.add(A1IN, slot);
+		}
+	}
+}
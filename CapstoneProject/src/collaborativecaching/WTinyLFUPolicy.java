@@ -0,0 +1,149 @@
+package collaborativecaching;
+
+import java.util.Random;
+
+import simulation.Block;
+
+/**
+ * Window TinyLFU replacement. New blocks enter a small LRU window. When the
+ * window overflows its least recently used block competes with the victim of
+ * the main cache and the one referenced less often according to a frequency
+ * sketch is replaced. The main cache is a segmented LRU where blocks
+ * referenced again move from the probation to the protected segment.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class WTinyLFUPolicy implements EvictionPolicy {
+
+	/** List of slots in window */
+	private static final int WINDOW = 0;
+
+	/** List of slots in probation segment */
+	private static final int PROBATION = 1;
+
+	/** List of slots in protected segment */
+	private static final int PROTECTED = 2;
+
+	/** Percentage of the cache used as window */
+	private static final int WINDOW_PERCENT = 1;
+
+	/** Percentage of the main cache used as protected segment */
+	private static final int PROTECTED_PERCENT = 80;
+
+	/** Slots of window and main segments */
+	private RecencyList segments;
+
+	/** Recent reference counts of data */
+	private FrequencySketch sketch;
+
+	/** Block id of the data in each slot */
+	private int[] keys;
+
+	/** Maximum size of window */
+	private int windowSize;
+
+	/** Maximum size of protected segment */
+	private int protectedSize;
+
+	/**
+	 * Creates W-TinyLFU policy for a cache
+	 *
+	 * @param capacity number of slots in cache
+	 */
+	public WTinyLFUPolicy(int capacity) {
+		segments = new RecencyList(capacity, 3);
+		sketch = new FrequencySketch(capacity);
+		keys = new int[capacity];
+		windowSize = Math.max(1, capacity * WINDOW_PERCENT / 100);
+		protectedSize = Math.max(0, capacity - windowSize)
+				* PROTECTED_PERCENT / 100;
+	}
+
+	@Override
+	public void warmUp(Block[] contents, Random random) {
+		int added = 0;
+		for(int slot : RecencyList.randomOrder(keys.length, random)) {
+			keys[slot] = contents[slot].getId();
+			segments.add((added++ < windowSize) ? WINDOW : PROBATION, slot);
+		}
+	}
+
+	@Override
+	public void recordAccess(int slot) {
+		sketch.increment(keys[slot]);
+		if(segments.listOf(slot) == PROBATION) {
+			segments.remove(slot);
+			segments.add(PROTECTED, slot);
+			if(segments.size(PROTECTED) > protectedSize) {
+				int demoted = segments.leastRecent(PROTECTED);
+				segments.remove(demoted);
+				segments.add(PROBATION, demoted);
+			}
+		} else {
+			segments.touch(slot);
+		}
+	}
+
+	@Override
+	public int selectVictim(int id) {
+		int candidate = segments.leastRecent(WINDOW);
+		int victim = mainVictim();
+		if(candidate == -1 || victim == -1) {
+			return (candidate == -1) ? victim : candidate;
+		}
+		// window block is admitted to main cache if it is more frequent
+		if(sketch.frequency(keys[candidate]) > sketch.frequency(keys[victim])) {
+			return victim;
+		}
+		return candidate;
+	}
+
+	@Override
+	public int peekVictim(int id) {
+		return selectVictim(id);
+	}
+
+	@Override
+	public int nextVictim(int slot) {
+		int list = WINDOW;
+		if(slot != -1) {
+			int next = segments.newer(slot);
+			if(next != -1) {
+				return next;
+			}
+			list = segments.listOf(slot) + 1;
+		}
+		for(; list <= PROTECTED; list++) {
+			if(segments.size(list) > 0) {
+				return segments.leastRecent(list);
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public void recordInsert(int slot, int id) {
+		sketch.increment(id);
+		int list = segments.listOf(slot);
+		segments.remove(slot);
+		// a slot of the main cache was freed so the window overflows into it
+		if(list != WINDOW && segments.size(WINDOW) >= windowSize) {
+			int candidate = segments.leastRecent(WINDOW);
+			segments.remove(candidate);
+			segments.add(PROBATION, candidate);
+		}
+		keys[slot] = id;
+		segments.add(WINDOW, slot);
+	}
+
+	/**
+	 * Gets the least recently used slot of probation or else of protected
+	 */
+	private int mainVictim() {
+		if(segments.size(PROBATION) > 0) {
+			return segments.leastRecent(PROBATION);
+		}
+		return segments.leastRecent(PROTECTED);
+	}
+}
@@ -1,22 +1,19 @@
 package simulation;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * Represents data block in a cache or disk
  * 
  * @author Shridhar Bhalekar
  */
 public class Block implements Comparable<Block>{
+	/** Dictionary id of the data */
+	private int id;
+	
 	/** Actual data in the block */
 	private String data;
 	
 	/** Recirculation count of block */
-	public int recirculationCount;
-	
-	/** Clients who has cached this block */
-	public Set<Long> clients;
+	private int recirculationCount;
 	
 	/** Boolean to represent the cached status of this block */
 	public boolean isCached;
@@ -24,15 +21,43 @@ public class Block implements Comparable<Block>{
 	/**
 	 * Creates object storing data
 	 * 
+	 * @param id dictionary id of the data
 	 * @param data Actual data to be stored
 	 */
-	public Block(String data) {
+	public Block(int id, String data) {
+		this.id = id;
 		this.data = data;
 		this.recirculationCount = -1;
-		this.clients = new HashSet<Long>();
 		isCached = false;
 	}
 	
+	/**
+	 * Getter for id
+	 * 
+	 * @return dictionary id of block data
+	 */
+	public int getId() {
+		return id;
+	}
+	
+	/**
+	 * Getter for recirculation count
+	 * 
+	 * @return recirculations left, -1 if block is not recirculating
+	 */
+	public int getRecirculationCount() {
+		return recirculationCount;
+	}
+	
+	/**
+	 * Setter for recirculation count
+	 * 
+	 * @param recirculationCount recirculations left, -1 to stop recirculating
+	 */
+	public void setRecirculationCount(int recirculationCount) {
+		this.recirculationCount = recirculationCount;
+	}
+	
 	/**
 	 * Getter for data
 	 * 
@@ -69,6 +94,6 @@ public class Block implements Comparable<Block>{
 	}
 	
 	public int hashCode() {
-		return this.data.hashCode();
+		return this.id;
 	}
 }
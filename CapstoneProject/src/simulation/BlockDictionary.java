@@ -0,0 +1,78 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns dense int ids to block data. The dictionary is built once when the
+ * data file is loaded, after which caches, directories and request traces
+ * work on ids and the data strings are only needed for output and for
+ * filters that hash the block contents.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class BlockDictionary {
+
+	/** Id of each data */
+	private Map<String, Integer> ids;
+
+	/** Data of each id */
+	private List<String> data;
+
+	/**
+	 * Creates empty dictionary
+	 */
+	public BlockDictionary() {
+		ids = new HashMap<String, Integer>();
+		data = new ArrayList<String>();
+	}
+
+	/**
+	 * Get the id of data, assigning the next id if data is new
+	 *
+	 * @param block data to be encoded
+	 * @return id of data
+	 */
+	public int encode(String block) {
+		Integer id = ids.get(block);
+		if(id == null) {
+			id = data.size();
+			ids.put(block, id);
+			data.add(block);
+		}
+		return id;
+	}
+
+	/**
+	 * Get the id of data without assigning new ids
+	 *
+	 * @param block data to be looked up
+	 * @return id of data or -1
+	 */
+	public int lookup(String block) {
+		Integer id = ids.get(block);
+		return (id == null) ? -1 : id;
+	}
+
+	/**
+	 * Get the data of an id
+	 *
+	 * @param id id from 0 to size - 1
+	 * @return data
+	 */
+	public String decode(int id) {
+		return data.get(id);
+	}
+
+	/**
+	 * Get the number of ids assigned
+	 *
+	 * @return size of dictionary
+	 */
+	public int size() {
+		return data.size();
+	}
+}
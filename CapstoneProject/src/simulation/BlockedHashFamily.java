@@ -0,0 +1,65 @@
+package simulation;
+
+/**
+ * Hash family for blocked bloom filters. The filter is split into blocks of
+ * one cache line and all k indices of a data fall inside the single block
+ * selected by the upper half of its hash value, so a probe touches one cache
+ * line instead of k random positions. The last block also covers the slots
+ * left over when the filter size is not a multiple of the block size.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class BlockedHashFamily implements HashFamily {
+
+	/** Hash family used to compute the hash value of data */
+	private HashFamily hashFamily;
+
+	/** Filter slots stored in one cache line */
+	private int slotsPerBlock;
+
+	/**
+	 * Creates blocked hash family on top of another hash family
+	 *
+	 * @param hashFamily hash functions used to compute hash value
+	 * @param slotsPerBlock filter slots held by one cache line
+	 */
+	public BlockedHashFamily(HashFamily hashFamily, int slotsPerBlock) {
+		this.hashFamily = hashFamily;
+		this.slotsPerBlock = slotsPerBlock;
+	}
+
+	/**
+	 * Gets the k indices of data, all inside one block of the filter
+	 *
+	 * @param data to be hashed
+	 * @param k number of indices required
+	 * @param range size of the bloom filter
+	 * @return array of k indices in [0, range)
+	 */
+	public int[] getHashIndexes(String data, int k, int range) {
+		long hash = hashFamily.hash64(data);
+		int blocks = Math.max(1, range / slotsPerBlock);
+		int block = DoubleHashingFamily.reduce((int) (hash >>> 32), blocks);
+		int start = block * slotsPerBlock;
+		int length = (block == blocks - 1) ? range - start : slotsPerBlock;
+		int h1 = (int) hash;
+		int h2 = (int) Murmur3HashFamily.fmix64(hash) | 1;
+		int[] indexes = new int[k];
+		for(int i = 0; i < k; i++) {
+			indexes[i] = start + DoubleHashingFamily.reduce(h1 + i * h2,
+					length);
+		}
+		return indexes;
+	}
+
+	/**
+	 * Gets the hash value of data from the underlying hash family
+	 *
+	 * @param data to be hashed
+	 * @return hashed value
+	 */
+	public long hash64(String data) {
+		return hashFamily.hash64(data);
+	}
+}
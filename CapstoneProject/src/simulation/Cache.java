@@ -5,7 +5,7 @@ package simulation;
  * @author Shridhar Bhalekar
  *
  */
-public class Cache extends Storage {
+public class Cache extends ObjectStorage {
 	
 	/**
 	 * Create object with cache size
@@ -23,7 +23,7 @@ public abstract class Client {
 	 * @param clientId id for this client
 	 */
 	public Client(int cacheSize, long clientId) {
-		this.cache = new Storage(cacheSize);
+		this.cache = new ObjectStorage(cacheSize);
 		this.cacheSize = cacheSize;
 		this.clientId = clientId;
 	}
@@ -42,14 +42,24 @@ public abstract class Client {
 		return true;
 	}
 	
+	/**
+	 * Replace the storage of the cache. Must be called before the cache warm
+	 * up.
+	 * 
+	 * @param cache empty storage with cache size slots
+	 */
+	public void setCacheStorage(Storage cache) {
+		this.cache = cache;
+	}
+	
 	/**
 	 * Locate the data in the cache blocks
 	 * 
-	 * @param data to be located in the cache
-	 * @return true/false
+	 * @param id block id of data to be located in the cache
+	 * @return index of data or -1
 	 */
-	public int cacheLookup(String data) {
-		return cache.lookup(data);
+	public int cacheLookup(int id) {
+		return cache.lookup(id);
 	}
 	
 	/**
@@ -77,6 +87,16 @@ public abstract class Client {
 		return cache.getBlock(index);
 	}
 	
+	/**
+	 * Get the block id in a cache slot without referencing the block
+	 * 
+	 * @param index slot of cache
+	 * @return block id or -1
+	 */
+	public int getCacheBlockId(int index) {
+		return cache.getId(index);
+	}
+	
 	public boolean equals(Object client) {
 		return this.clientId == ((Client)client).getClientId();
 	}
@@ -0,0 +1,114 @@
+package simulation;
+
+import java.util.Arrays;
+
+/**
+ * Compact set of client ids. Ids are kept sorted in an int array that is
+ * allocated on the first add and grows by doubling, so a set of a few
+ * holders costs a few ints and an empty set costs no array at all.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class ClientIdSet {
+
+	/** Initial length of the id array */
+	private static final int INITIAL_CAPACITY = 2;
+
+	/** Sorted client ids, null until the first add */
+	private int[] ids;
+
+	/** Number of ids in the set */
+	private int size;
+
+	/**
+	 * Add client id to the set
+	 *
+	 * @param clientId id to be added
+	 * @return true if the id was not in the set
+	 */
+	public boolean add(int clientId) {
+		int position = search(clientId);
+		if(position >= 0) {
+			return false;
+		}
+		position = -(position + 1);
+		if(ids == null) {
+			ids = new int[INITIAL_CAPACITY];
+		} else if(size == ids.length) {
+			ids = Arrays.copyOf(ids, 2 * size);
+		}
+		System.arraycopy(ids, position, ids, position + 1, size - position);
+		ids[position] = clientId;
+		size++;
+		return true;
+	}
+
+	/**
+	 * Remove client id from the set
+	 *
+	 * @param clientId id to be removed
+	 * @return true if the id was in the set
+	 */
+	public boolean remove(int clientId) {
+		int position = search(clientId);
+		if(position < 0) {
+			return false;
+		}
+		size--;
+		System.arraycopy(ids, position + 1, ids, position, size - position);
+		return true;
+	}
+
+	/**
+	 * Check if client id is in the set
+	 *
+	 * @param clientId id to be checked
+	 * @return true/false
+	 */
+	public boolean contains(int clientId) {
+		return search(clientId) >= 0;
+	}
+
+	/**
+	 * Get the client id at a position, ids are in increasing order
+	 *
+	 * @param position from 0 to size - 1
+	 * @return client id
+	 */
+	public int get(int position) {
+		return ids[position];
+	}
+
+	/**
+	 * Get number of ids in the set
+	 *
+	 * @return size of set
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Check if the set has no ids
+	 *
+	 * @return true/false
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Remove all ids from the set
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	private int search(int clientId) {
+		if(ids == null) {
+			return -1;
+		}
+		return Arrays.binarySearch(ids, 0, size, clientId);
+	}
+}
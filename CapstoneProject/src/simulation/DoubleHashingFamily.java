@@ -0,0 +1,54 @@
+package simulation;
+
+/**
+ * Base class for the fast hash families. Only one 64 bit hash value is
+ * computed per data and the k indices are derived from its two 32 bit halves
+ * by double hashing (g(i) = h1 + i * h2). Indices are mapped to the bloom
+ * filter range by multiply-shift instead of a modulo.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public abstract class DoubleHashingFamily implements HashFamily {
+
+	/**
+	 * Gets the k indices of data by double hashing the 64 bit hash value
+	 *
+	 * @param data to be hashed
+	 * @param k number of indices required
+	 * @param range size of the bloom filter
+	 * @return array of k indices in [0, range)
+	 */
+	public int[] getHashIndexes(String data, int k, int range) {
+		long hash = hash64(data);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		int[] indexes = new int[k];
+		for(int i = 0; i < k; i++) {
+			indexes[i] = reduce(h1 + i * h2, range);
+		}
+		return indexes;
+	}
+
+	/**
+	 * Maps a 32 bit hash value to [0, range) by multiplying and keeping the
+	 * upper 32 bits of the product
+	 *
+	 * @param hash value to be mapped
+	 * @param range upper bound (exclusive)
+	 * @return index in [0, range)
+	 */
+	public static int reduce(int hash, int range) {
+		return (int) (((hash & 0xFFFFFFFFL) * range) >>> 32);
+	}
+
+	/**
+	 * Reads 4 characters of data starting at index as a little endian long
+	 */
+	protected static long getLong(String data, int index) {
+		return (data.charAt(index) & 0xFFFFL)
+				| ((data.charAt(index + 1) & 0xFFFFL) << 16)
+				| ((data.charAt(index + 2) & 0xFFFFL) << 32)
+				| ((data.charAt(index + 3) & 0xFFFFL) << 48);
+	}
+}
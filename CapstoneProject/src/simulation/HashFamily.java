@@ -0,0 +1,34 @@
+package simulation;
+
+/**
+ * Family of hash functions used to map data to the k indices of a bloom
+ * filter. Every bloom filter probe in the simulator goes through one of these
+ * families so that the hashing strategy can be swapped from the properties
+ * file.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public interface HashFamily {
+
+	/** Number of hash functions used by the bloom filters */
+	public static final int DEFAULT_HASH_COUNT = 5;
+
+	/**
+	 * Gets the k indices of data in a bloom filter of given size
+	 *
+	 * @param data to be hashed
+	 * @param k number of indices required
+	 * @param range size of the bloom filter
+	 * @return array of k indices in [0, range)
+	 */
+	public int[] getHashIndexes(String data, int k, int range);
+
+	/**
+	 * Gets a single 64 bit hash value of data
+	 *
+	 * @param data to be hashed
+	 * @return hashed value
+	 */
+	public long hash64(String data);
+}
@@ -0,0 +1,34 @@
+package simulation;
+
+/**
+ * Factory pattern to create objects of HashFamily class
+ * @author Shridhar Bhalekar
+ */
+public class HashFamilyFactory {
+
+	/**
+	 * Method which creates object of appropriate HashFamily implementation
+	 * according to type.
+	 *
+	 * @param type type of HashFamily
+	 *
+	 * @return HashFamily object
+	 */
+	public static HashFamily createHashFamily(HashFamilyType type) {
+		HashFamily family = null;
+		switch(type) {
+		case Legacy:
+			family = new LegacyHashFamily();
+			break;
+		case Murmur3:
+			family = new Murmur3HashFamily();
+			break;
+		case XXHash:
+			family = new XXHashFamily();
+			break;
+		default:
+			break;
+		}
+		return family;
+	}
+}
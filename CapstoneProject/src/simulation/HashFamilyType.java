@@ -0,0 +1,12 @@
+package simulation;
+
+/**
+ * Types of hash families which can be selected for bloom filters
+ *
+ * @author Shridhar Bhalekar
+ */
+public enum HashFamilyType {
+	Legacy,
+	Murmur3,
+	XXHash
+}
@@ -0,0 +1,134 @@
+package simulation;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded table of precomputed bloom filter indices shared by all clients
+ * using the same filter geometry. Wraps another hash family and remembers the
+ * k indices of each block so that probing the same block on every peer costs
+ * one lookup instead of k hash computations per peer. The 64 bit hashes of
+ * blocks, used by filters hashing a block once, are remembered the same
+ * way. Least recently used entries are dropped once a table is full.
+ *
+ * Returned index arrays are shared and must not be modified by the caller.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class HashIndexTable implements HashFamily {
+
+	/** Hash family used to compute the indices on a table miss */
+	private HashFamily hashFamily;
+
+	/** Maximum entries stored for each filter geometry */
+	private int capacity;
+
+	/** Tables of indices for each (k, range) geometry */
+	private Map<Long, Map<String, int[]>> tables;
+
+	/** Table of 64 bit hashes */
+	private Map<String, Long> hashes;
+
+	/**
+	 * Creates index table on top of a hash family
+	 *
+	 * @param hashFamily hash functions used to compute indices
+	 * @param capacity maximum blocks stored for each filter geometry
+	 */
+	public HashIndexTable(HashFamily hashFamily, int capacity) {
+		this.hashFamily = hashFamily;
+		this.capacity = capacity;
+		this.tables = new HashMap<Long, Map<String, int[]>>();
+		this.hashes = newTable();
+	}
+
+	/**
+	 * Gets the k indices of data from the table. Computes and stores them if
+	 * not present.
+	 *
+	 * @param data to be hashed
+	 * @param k number of indices required
+	 * @param range size of the bloom filter
+	 * @return array of k indices in [0, range)
+	 */
+	public int[] getHashIndexes(String data, int k, int range) {
+		Map<String, int[]> table = getTable(k, range);
+		int[] indexes = table.get(data);
+		if(indexes == null) {
+			indexes = hashFamily.getHashIndexes(data, k, range);
+			table.put(data, indexes);
+		}
+		return indexes;
+	}
+
+	/**
+	 * Gets the 64 bit hash of data from the table. Computes and stores it if
+	 * not present.
+	 *
+	 * @param data to be hashed
+	 * @return hashed value
+	 */
+	public long hash64(String data) {
+		Long hash = hashes.get(data);
+		if(hash == null) {
+			hash = hashFamily.hash64(data);
+			hashes.put(data, hash);
+		}
+		return hash;
+	}
+
+	/**
+	 * Computes the indices of all the blocks before starting the experiment
+	 *
+	 * @param blocks storage of the data blocks to be hashed
+	 * @param k number of indices for each block
+	 * @param range size of the bloom filter
+	 */
+	public void precompute(Storage blocks, int k, int range) {
+		for(int i = 0; i < blocks.size(); i++) {
+			getHashIndexes(blocks.getBlock(i).getData(), k, range);
+		}
+	}
+
+	/**
+	 * Computes the 64 bit hashes of all the blocks before starting the
+	 * experiment
+	 *
+	 * @param blocks storage of the data blocks to be hashed
+	 */
+	public void precomputeHash64(Storage blocks) {
+		for(int i = 0; i < blocks.size(); i++) {
+			hash64(blocks.getBlock(i).getData());
+		}
+	}
+
+	/**
+	 * Gets the table of given filter geometry, creating it when needed
+	 */
+	private Map<String, int[]> getTable(int k, int range) {
+		Long geometry = ((long) k << 32) | range;
+		Map<String, int[]> table = tables.get(geometry);
+		if(table == null) {
+			table = newTable();
+			tables.put(geometry, table);
+		}
+		return table;
+	}
+
+	/**
+	 * Creates a table dropping its least recently used entry once it holds
+	 * more than capacity entries
+	 */
+	private <V> Map<String, V> newTable() {
+		return new LinkedHashMap<String, V>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+}
@@ -0,0 +1,64 @@
+package simulation;
+
+import java.math.BigInteger;
+
+/**
+ * Original hash family of the simulator. Indices are computed from SHA-1,
+ * MD5, SHA-256, SHA-384 and djb2 digests of the data reduced with
+ * BigInteger.mod. Kept to compare results with the fast hash families.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class LegacyHashFamily implements HashFamily {
+
+	/**
+	 * Gets the hash values of data by giving this data as input to the five
+	 * digest functions. If more than five indices are needed then remaining
+	 * indices are derived from first two by double hashing.
+	 *
+	 * @param data to be hashed
+	 * @param k number of indices required
+	 * @param range size of the bloom filter
+	 * @return array of k indices in [0, range)
+	 */
+	public int[] getHashIndexes(String data, int k, int range) {
+		int[] indexes = new int[k];
+		BigInteger bfSize = BigInteger.valueOf(range);
+		DataHash hash = new DataHash(data);
+		for(int i = 0; i < k; i++) {
+			switch(i) {
+			case 0:
+				indexes[i] = hash.sha1().mod(bfSize).intValue();
+				break;
+			case 1:
+				indexes[i] = hash.md5().mod(bfSize).intValue();
+				break;
+			case 2:
+				indexes[i] = hash.sha256().mod(bfSize).intValue();
+				break;
+			case 3:
+				indexes[i] = hash.sha384().mod(bfSize).intValue();
+				break;
+			case 4:
+				indexes[i] = hash.djb2().mod(bfSize).intValue();
+				break;
+			default:
+				indexes[i] = (int) ((indexes[0] + (long) i * indexes[1])
+						% range);
+				break;
+			}
+		}
+		return indexes;
+	}
+
+	/**
+	 * Uses lower 64 bits of SHA-1 digest as hash value
+	 *
+	 * @param data to be hashed
+	 * @return hashed value
+	 */
+	public long hash64(String data) {
+		return new DataHash(data).sha1().longValue();
+	}
+}
@@ -0,0 +1,115 @@
+package simulation;
+
+/**
+ * Hash family based on the 128 bit x64 variant of MurmurHash3. Characters of
+ * the data are hashed directly as UTF-16 code units so no byte array is
+ * created per hash.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class Murmur3HashFamily extends DoubleHashingFamily {
+
+	private static final long C1 = 0x87c37b91114253d5L;
+
+	private static final long C2 = 0x4cf5ad432745937fL;
+
+	/** Seed of the hash function */
+	private final long seed;
+
+	/**
+	 * Creates murmur hash family with default seed
+	 */
+	public Murmur3HashFamily() {
+		this(0);
+	}
+
+	/**
+	 * Creates murmur hash family with given seed
+	 *
+	 * @param seed seed of hash function
+	 */
+	public Murmur3HashFamily(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Computes the lower 64 bits of MurmurHash3 x64 128 of data
+	 *
+	 * @param data to be hashed
+	 * @return hashed value
+	 */
+	public long hash64(String data) {
+		int length = data.length();
+		long h1 = seed;
+		long h2 = seed;
+		int i = 0;
+		// 16 byte blocks
+		for(; i + 8 <= length; i += 8) {
+			long k1 = getLong(data, i);
+			long k2 = getLong(data, i + 4);
+			k1 *= C1;
+			k1 = Long.rotateLeft(k1, 31);
+			k1 *= C2;
+			h1 ^= k1;
+			h1 = Long.rotateLeft(h1, 27);
+			h1 += h2;
+			h1 = h1 * 5 + 0x52dce729;
+			k2 *= C2;
+			k2 = Long.rotateLeft(k2, 33);
+			k2 *= C1;
+			h2 ^= k2;
+			h2 = Long.rotateLeft(h2, 31);
+			h2 += h1;
+			h2 = h2 * 5 + 0x38495ab5;
+		}
+		// tail of up to 7 characters
+		int remaining = length - i;
+		if(remaining > 0) {
+			long k1 = 0;
+			long k2 = 0;
+			for(int j = 0; j < remaining; j++) {
+				long ch = data.charAt(i + j) & 0xFFFFL;
+				if(j < 4) {
+					k1 |= ch << (16 * j);
+				} else {
+					k2 |= ch << (16 * (j - 4));
+				}
+			}
+			if(remaining > 4) {
+				k2 *= C2;
+				k2 = Long.rotateLeft(k2, 33);
+				k2 *= C1;
+				h2 ^= k2;
+			}
+			k1 *= C1;
+			k1 = Long.rotateLeft(k1, 31);
+			k1 *= C2;
+			h1 ^= k1;
+		}
+		long byteLength = 2L * length;
+		h1 ^= byteLength;
+		h2 ^= byteLength;
+		h1 += h2;
+		h2 += h1;
+		h1 = fmix64(h1);
+		h2 = fmix64(h2);
+		h1 += h2;
+		return h1;
+	}
+
+	/**
+	 * Finalization mix of MurmurHash3
+	 *
+	 * @param k value to be mixed
+	 * @return mixed value
+	 */
+	public static long fmix64(long k) {
+		k ^= k >>> 33;
+		k *= 0xff51afd7ed558ccdL;
+		k ^= k >>> 33;
+		k *= 0xc4ceb9fe1a85ec53L;
+		k ^= k >>> 33;
+		return k;
+	}
+}
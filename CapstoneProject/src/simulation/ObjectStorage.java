@@ -0,0 +1,39 @@
+package simulation;
+
+/**
+ * Storage laying out the slots as an array of block references. This is the
+ * default storage of clients and servers.
+ * 
+ * @author Shridhar Bhalekar
+ *
+ */
+public class ObjectStorage extends Storage {
+	
+	/** Storage blocks to be allocated */
+	protected Block[] storageSpace;
+	
+	/**
+	 * Creates object with storage size
+	 * 
+	 * @param storageSize
+	 */
+	public ObjectStorage(int storageSize) {
+		super(storageSize);
+		storageSpace = new Block[storageSize];
+	}
+	
+	@Override
+	public Block getBlock(int index) {
+		return storageSpace[index];
+	}
+	
+	@Override
+	public int getId(int index) {
+		return (storageSpace[index] == null) ? -1 : storageSpace[index].getId();
+	}
+	
+	@Override
+	protected void store(int index, Block block) {
+		storageSpace[index] = block;
+	}
+}
@@ -0,0 +1,56 @@
+package simulation;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Slot index keeping its entries in direct memory outside the Java heap.
+ * Each entry is the id followed by its slot, so a probe reads both from the
+ * same cache line. Probing and removal are those of SlotIndex, only the
+ * entry accessors are replaced.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class OffHeapSlotIndex extends SlotIndex {
+
+	/** Id and slot of each entry */
+	private IntBuffer entries;
+
+	/**
+	 * Creates index for a storage
+	 *
+	 * @param storageSize maximum number of ids in the index
+	 */
+	public OffHeapSlotIndex(int storageSize) {
+		super(storageSize, false);
+		int capacity = mask + 1;
+		entries = ByteBuffer.allocateDirect(8 * capacity)
+				.order(ByteOrder.nativeOrder()).asIntBuffer();
+		for(int i = 0; i < capacity; i++) {
+			clearEntry(i);
+		}
+	}
+
+	@Override
+	protected int key(int i) {
+		return entries.get(2 * i);
+	}
+
+	@Override
+	protected int value(int i) {
+		return entries.get(2 * i + 1);
+	}
+
+	@Override
+	protected void setEntry(int i, int id, int slot) {
+		entries.put(2 * i, id);
+		entries.put(2 * i + 1, slot);
+	}
+
+	@Override
+	protected void clearEntry(int i) {
+		entries.put(2 * i, EMPTY);
+	}
+}
@@ -0,0 +1,60 @@
+package simulation;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Storage keeping its slot records and slot index in direct memory outside
+ * the Java heap. Meant for server disks of millions of blocks, whose slots
+ * then neither grow the heap nor get scanned by the garbage collector.
+ * 
+ * @author Shridhar Bhalekar
+ *
+ */
+public class OffHeapStorage extends SlotStorage {
+	
+	/** Ints in the record of a slot */
+	private static final int RECORD_WIDTH = 2;
+	
+	/** Record of each slot, block id -1 for empty slots */
+	private IntBuffer records;
+	
+	/**
+	 * Creates object with storage size
+	 * 
+	 * @param storageSize number of slots
+	 * @param dictionary dictionary giving the data of block ids
+	 * @param disk disk the cached blocks are taken from, null for a disk
+	 */
+	public OffHeapStorage(int storageSize, BlockDictionary dictionary,
+			SlotStorage disk) {
+		super(storageSize, new OffHeapSlotIndex(storageSize), dictionary, disk);
+		records = ByteBuffer.allocateDirect(4 * RECORD_WIDTH * storageSize)
+				.order(ByteOrder.nativeOrder()).asIntBuffer();
+		for(int i = 0; i < storageSize; i++) {
+			records.put(RECORD_WIDTH * i, -1);
+		}
+	}
+	
+	@Override
+	public int getId(int index) {
+		return records.get(RECORD_WIDTH * index);
+	}
+	
+	@Override
+	protected int getValue(int index) {
+		return records.get(RECORD_WIDTH * index + 1);
+	}
+	
+	@Override
+	protected void setValue(int index, int value) {
+		records.put(RECORD_WIDTH * index + 1, value);
+	}
+	
+	@Override
+	protected void setRecord(int index, int id, int value) {
+		records.put(RECORD_WIDTH * index, id);
+		records.put(RECORD_WIDTH * index + 1, value);
+	}
+}
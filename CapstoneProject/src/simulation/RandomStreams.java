@@ -0,0 +1,55 @@
+package simulation;
+
+import java.util.Random;
+
+/**
+ * Source of seeded random streams derived from one run seed. Seeds are
+ * drawn from a SplitMix64 sequence, so the streams handed out depend only
+ * on the run seed and on the order in which they are requested. A component
+ * running on another thread is given a split of the streams before it
+ * starts, which keeps its streams independent of thread scheduling.
+ * 
+ * @author Shridhar Bhalekar
+ *
+ */
+public class RandomStreams {
+
+	/** Increment of the SplitMix64 sequence */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/** Current state of the seed sequence */
+	private long state;
+
+	/**
+	 * Creates streams derived from a run seed
+	 * 
+	 * @param seed run seed
+	 */
+	public RandomStreams(long seed) {
+		this.state = seed;
+	}
+
+	/**
+	 * Creates a random stream for one component
+	 * 
+	 * @return random generator seeded from the sequence
+	 */
+	public Random nextStream() {
+		return new Random(nextSeed());
+	}
+
+	/**
+	 * Creates an independent source of streams, to be handed to a component
+	 * which requests streams of its own
+	 * 
+	 * @return streams seeded from the sequence
+	 */
+	public RandomStreams split() {
+		return new RandomStreams(nextSeed());
+	}
+
+	private long nextSeed() {
+		state += GOLDEN_GAMMA;
+		return Murmur3HashFamily.fmix64(state);
+	}
+}
@@ -1,5 +1,7 @@
 package simulation;
 
+import bloomfilters.RibbonFilter;
+
 /**
  * Represents a server for simulation
  * 
@@ -23,6 +25,9 @@ public abstract class Server {
 	/** Server id */
 	protected long serverId;
 	
+	/** Static filter over the disk contents built at disk warm up */
+	private RibbonFilter diskFilter;
+	
 	/**
 	 * Creates a server object with cache size, disk size and id
 	 * 
@@ -35,7 +40,7 @@ public abstract class Server {
 		this.diskSize = diskSize;
 		this.serverId = serverId;
 		cache = new Cache(cacheSize);
-		disk = new Storage(diskSize);
+		disk = new ObjectStorage(diskSize);
 	}
 	
 	
@@ -43,6 +48,16 @@ public abstract class Server {
 		return this.cache;
 	}
 	
+	/**
+	 * Replace the storage of the cache. Must be called before the cache warm
+	 * up.
+	 * 
+	 * @param cache empty storage with cache size slots
+	 */
+	public void setCacheStorage(Storage cache) {
+		this.cache = cache;
+	}
+	
 	/**
 	 * Fill the cache with data blocks before starting the experiment
 	 * 
@@ -58,7 +73,9 @@ public abstract class Server {
 	}
 	
 	/**
-	 * Fill the disk with data blocks before starting the experiment
+	 * Fill the disk with data blocks before starting the experiment. Disk 
+	 * contents do not change afterwards so a static filter over them is built
+	 * to answer lookups of absent data without scanning the disk.
 	 * 
 	 * @param contents actual data blocks to be filled in disk
 	 * @return true/false
@@ -68,9 +85,52 @@ public abstract class Server {
 			return false;
 		}
 		disk.fillStorageBlocks(contents);
+		buildDiskFilter();
+		return true;
+	}
+	
+	/**
+	 * Take over a disk already filled with data blocks before starting the
+	 * experiment and build the static filter over its contents.
+	 * 
+	 * @param contents storage with disk size slots filled with data blocks
+	 * @return true/false
+	 */
+	public boolean diskWarmUp(Storage contents) {
+		if(this.diskSize != contents.size()) {
+			return false;
+		}
+		disk = contents;
+		buildDiskFilter();
 		return true;
 	}
 	
+	/**
+	 * Builds the static filter over the ids on the disk
+	 */
+	private void buildDiskFilter() {
+		long[] keys = new long[diskSize];
+		for(int i = 0; i < diskSize; i++) {
+			keys[i] = Murmur3HashFamily.fmix64(disk.getId(i));
+		}
+		diskFilter = new RibbonFilter(keys);
+	}
+	
+	/**
+	 * Locate the data in the disk blocks. Data rejected by the disk filter is
+	 * reported absent without referencing the disk.
+	 * 
+	 * @param request block id of data to be located in the disk
+	 * @return index of data or -1
+	 */
+	public int diskLookup(int request) {
+		if(diskFilter != null && 
+				!diskFilter.contains(Murmur3HashFamily.fmix64(request))) {
+			return -1;
+		}
+		return disk.lookup(request);
+	}
+	
 	/**
 	 * Get server id
 	 * @return server id
@@ -91,10 +151,10 @@ public abstract class Server {
 	/**
 	 * Locate the data in the cache blocks
 	 * 
-	 * @param request data to be located in the cache
-	 * @return true/false
+	 * @param request block id of data to be located in the cache
+	 * @return index of data or -1
 	 */
-	public int cacheLookup(String request) {
+	public int cacheLookup(int request) {
 		return cache.lookup(request);
 	}
 	
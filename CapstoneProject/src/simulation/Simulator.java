@@ -8,14 +8,26 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import collaborativecaching.AlgorithmType;
 import collaborativecaching.CachingAlgorithm;
 import collaborativecaching.CachingAlgorithmFactory;
+import collaborativecaching.DiscreteEventSimulator;
+import collaborativecaching.EvictionPolicyType;
+import collaborativecaching.SummaryCache;
 import bloomfilters.BloomFilter;
+import bloomfilters.FilterSizing;
 import bloomfilters.ImportanceAwareBloomFilter;
 
 /**
@@ -62,6 +74,43 @@ public class Simulator {
 	private int experimentType;
 
 	private int totalRequests;
+	
+	/** Hash family used by the bloom filters */
+	private HashFamily hashFamily;
+	
+	/** Use blocked bloom filters in caching algorithms */
+	private boolean blockedBloomFilter;
+	
+	/** Target false positive rate of bloom filters, 0 for fixed sizes */
+	private double targetFalsePositiveRate;
+	
+	/** Memory budget of a client bloom filter in bytes, 0 for no budget */
+	private long filterMemoryBudget;
+	
+	/** Caching algorithms compared in caching experiment */
+	private List<AlgorithmType> algorithms;
+	
+	/** Eviction policy of client and server caches */
+	private EvictionPolicyType evictionPolicy;
+	
+	/** Whether caching results are also reported with admission filter */
+	private boolean admissionFilter;
+	
+	/** Layout of client and server cache slots */
+	private StorageType storageType;
+	
+	/** Layout of server disk slots */
+	private StorageType diskStorageType;
+	
+	/** Number of caching comparison cells executed concurrently */
+	private int parallelism;
+	
+	/** Source of all random streams of the run, derived from the run seed */
+	private RandomStreams randomStreams;
+	
+	/** Requests arriving per tick to queue request traces, 0 for none */
+	private double arrivalRate;
+	
 	/** File containing data to be added to the client/server storage */
 	private String dataFile;
 
@@ -74,14 +123,21 @@ public class Simulator {
 	/** data for server disk */
 	private Block[] serverDisk;
 
-	/** Read file data */
-	private List<String> dataList;
+	/** Block ids of read file data in file order */
+	private int[] dataList;
+
+	/** Number of lines read from data file */
+	private int dataCount;
+
+	/** Dictionary of block ids assigned to file data */
+	private BlockDictionary dictionary;
 
 	/**
 	 * Creates simulator object
 	 */
 	public Simulator() {
-		dataList = new ArrayList<String>();
+		dataList = new int[16];
+		dictionary = new BlockDictionary();
 	}
 
 	/**
@@ -118,10 +174,54 @@ public class Simulator {
 		experimentType = Integer.parseInt(properties
 				.getProperty("experimentType"));
 		dataFile = properties.getProperty("dataFile");
+		hashFamily = HashFamilyFactory.createHashFamily(HashFamilyType
+				.valueOf(properties.getProperty("hashFamily", "Legacy")));
+		blockedBloomFilter = Boolean.parseBoolean(properties.getProperty(
+				"blockedBloomFilter", "false"));
+		targetFalsePositiveRate = Double.parseDouble(properties.getProperty(
+				"targetFalsePositiveRate", "0"));
+		filterMemoryBudget = Long.parseLong(properties.getProperty(
+				"filterMemoryBudget", "0"));
+		evictionPolicy = EvictionPolicyType.valueOf(properties.getProperty(
+				"evictionPolicy", "LRU"));
+		admissionFilter = Boolean.parseBoolean(properties.getProperty(
+				"admissionFilter", "false"));
+		storageType = StorageType.valueOf(properties.getProperty(
+				"storageType", "ObjectArray"));
+		diskStorageType = StorageType.valueOf(properties.getProperty(
+				"diskStorageType", storageType.name()));
+		if (storageType != StorageType.ObjectArray
+				&& diskStorageType == StorageType.ObjectArray) {
+			// slot caches record the disk slot of each cached block
+			throw new IllegalArgumentException(storageType + " cache storage"
+					+ " needs a StructOfArrays or OffHeap disk");
+		}
+		parallelism = Integer.parseInt(properties.getProperty(
+				"parallelism", "1"));
+		arrivalRate = Double.parseDouble(properties.getProperty(
+				"arrivalRate", "0"));
+		String seed = properties.getProperty("seed");
+		randomStreams = new RandomStreams((seed == null) ? new Random()
+				.nextLong() : Long.parseLong(seed));
+		algorithms = new ArrayList<AlgorithmType>();
+		String algorithmNames = properties.getProperty("algorithms");
+		if (algorithmNames == null) {
+			// the cuckoo summary variant runs only when asked for
+			for (AlgorithmType type : AlgorithmType.values()) {
+				if (type != AlgorithmType.SummaryCacheCuckoo) {
+					algorithms.add(type);
+				}
+			}
+		} else {
+			for (String name : algorithmNames.split(",")) {
+				algorithms.add(AlgorithmType.valueOf(name.trim()));
+			}
+		}
 	}
 
 	/**
-	 * Read data file and store the contents in dataList
+	 * Read data file, encode each line in the dictionary and store the block
+	 * ids in dataList
 	 * 
 	 * @return true if data read successfully
 	 */
@@ -131,7 +231,10 @@ public class Simulator {
 			String currentLine;
 			fileReader = new BufferedReader(new FileReader(new File(dataFile)));
 			while ((currentLine = fileReader.readLine()) != null) {
-				dataList.add(currentLine);
+				if (dataCount == dataList.length) {
+					dataList = Arrays.copyOf(dataList, 2 * dataCount);
+				}
+				dataList[dataCount++] = dictionary.encode(currentLine);
 			}
 			return true;
 		} catch (FileNotFoundException e) {
@@ -165,7 +268,9 @@ public class Simulator {
 
 	/**
 	 * Experiment to compare Bloom Filter with Importance Aware Bloom Filter.
-	 * Initializes the two bloom filter objects for experiment execution.
+	 * Initializes the two bloom filter objects for experiment execution along
+	 * with a Bloom Filter in blocked layout to compare against the classic
+	 * layout.
 	 * Distributes data evenly between clients. Clients with same client id will
 	 * have same cache contents in BF and IBF. Executes the experiment with
 	 * different number of requests and saves the result in file.
@@ -173,9 +278,14 @@ public class Simulator {
 	private void bloomFilterComparison() {
 		BloomFilter bf = new BloomFilter(nClientsHigh);
 		BloomFilter ibf = new ImportanceAwareBloomFilter(nClientsHigh);
+		BloomFilter blockedBf = new BloomFilter(nClientsHigh);
+		bf.setHashFamily(hashFamily);
+		ibf.setHashFamily(hashFamily);
+		blockedBf.setHashFamily(hashFamily);
+		blockedBf.setBlocked(true);
 		try {
-			variableRequests(bf, ibf);
-			variableBloomFilterSize(bf, ibf);
+			variableRequests(bf, ibf, blockedBf);
+			variableBloomFilterSize(bf, ibf, blockedBf);
 			System.out.println("Experiment Complete");
 		} catch (IOException e) {
 			System.err.println(e.getMessage());
@@ -192,20 +302,50 @@ public class Simulator {
 		return dataFile.replaceFirst("[.][^.]+$", "");
 	}
 
+	/**
+	 * Setup the bloom filter for the cache size. The filter is sized for the
+	 * expected elements from the target false positive rate and memory budget
+	 * if given, otherwise it has the default size and number of hash 
+	 * functions.
+	 * 
+	 * @param filter
+	 *            bloom filter object
+	 * @param cacheSize
+	 *            cache size of client/server
+	 * @param expectedElements
+	 *            expected elements in the bloom filter
+	 * @param defaultSize
+	 *            bloom filter size without target rate and memory budget
+	 * @return bloom filter object
+	 */
+	private BloomFilter setupFilter(BloomFilter filter, int cacheSize,
+			int expectedElements, int defaultSize) {
+		filter.setRandom(randomStreams.nextStream());
+		FilterSizing sizing = FilterSizing.create(expectedElements,
+				filter.getBitsPerSlot(), targetFalsePositiveRate,
+				filterMemoryBudget, defaultSize);
+		return filter.setupParameters(cacheSize, cacheSize, serverDiskSize,
+				sizing);
+	}
+
 	/**
 	 * This method executes one type of bloom filter comparison experiment which
 	 * compares false positives with the cache size and bloom filter size.
+	 * With a target false positive rate or memory budget the filters are
+	 * instead sized for under and over estimated element counts.
 	 * 
 	 * @param bf
 	 *            Bloom Filter object
 	 * @param ibf
 	 *            Importance Aware Bloom Filter object
+	 * @param blockedBf
+	 *            Bloom Filter object with blocked layout
 	 * 
 	 * @throws IOException
 	 *             Exception while file writing
 	 */
-	private void variableBloomFilterSize(BloomFilter bf, BloomFilter ibf)
-			throws IOException {
+	private void variableBloomFilterSize(BloomFilter bf, BloomFilter ibf,
+			BloomFilter blockedBf) throws IOException {
 		int cacheSize = cacheSizeLow;
 		int nClients = nClientsHigh;
 		File resultFile = new File(getFileNameWithoutExt(dataFile)
@@ -215,21 +355,19 @@ public class Simulator {
 		while (cacheSizeRampUp > 0 && cacheSize <= cacheSizeHigh) {
 			int totalCacheSize = (nClients + 1) * cacheSize;
 			warmup(cacheSize, cacheSize, nClients);
-			List<String> testRequests = getRequests(totalCacheSize);
+			int[] testRequests = getRequests(totalCacheSize);
 			writer.write(new Integer(cacheSize).toString());
 			for (double per : requestPercentage) {
 				int bloomFilterSize = (int) (per * (double) cacheSize);
-				bf.setupParameters(cacheSize, cacheSize, serverDiskSize,
-						bloomFilterSize).warmup(clientCaches, serverCache,
-						serverDisk);
-				ibf.setupParameters(cacheSize, cacheSize, serverDiskSize,
+				setupFilter(bf, cacheSize, bloomFilterSize, bloomFilterSize)
+						.warmup(clientCaches, serverCache, serverDisk);
+				setupFilter(ibf, cacheSize, bloomFilterSize, bloomFilterSize)
+						.warmup(clientCaches, serverCache, serverDisk);
+				setupFilter(blockedBf, cacheSize, bloomFilterSize,
 						bloomFilterSize).warmup(clientCaches, serverCache,
 						serverDisk);
-				writer.write("," + cacheSize + "/" + bloomFilterSize);
-				writer.write("," + bf.executeExperiment(testRequests) + ","
-						+ ibf.executeExperiment(testRequests));
-				bf.resetFalsePositive();
-				ibf.resetFalsePositive();
+				writer.write("," + cacheSize + "/" + bf.getBloomFilterSize());
+				writeFalsePositives(writer, testRequests, bf, ibf, blockedBf);
 			}
 			writer.write("\n");
 			cacheSize += cacheSizeRampUp;
@@ -246,12 +384,14 @@ public class Simulator {
 	 *            Bloom Filter object
 	 * @param ibf
 	 *            Importance Aware Bloom Filter object
+	 * @param blockedBf
+	 *            Bloom Filter object with blocked layout
 	 * 
 	 * @throws IOException
 	 *             Exception while file writing
 	 */
-	private void variableRequests(BloomFilter bf, BloomFilter ibf)
-			throws IOException {
+	private void variableRequests(BloomFilter bf, BloomFilter ibf,
+			BloomFilter blockedBf) throws IOException {
 		int cacheSize = cacheSizeLow;
 		int nClients = nClientsHigh;
 		File resultFile = new File(getFileNameWithoutExt(dataFile)
@@ -262,19 +402,18 @@ public class Simulator {
 		while (cacheSizeRampUp > 0 && cacheSize <= cacheSizeHigh) {
 			int totalCacheSize = (nClients + 1) * cacheSize;
 			warmup(cacheSize, cacheSize, nClients);
-			bf.setupParameters(cacheSize, cacheSize, serverDiskSize, cacheSize)
+			setupFilter(bf, cacheSize, cacheSize, cacheSize)
 					.warmup(clientCaches, serverCache, serverDisk);
-			ibf.setupParameters(cacheSize, cacheSize, serverDiskSize, cacheSize)
+			setupFilter(ibf, cacheSize, cacheSize, cacheSize)
+					.warmup(clientCaches, serverCache, serverDisk);
+			setupFilter(blockedBf, cacheSize, cacheSize, cacheSize)
 					.warmup(clientCaches, serverCache, serverDisk);
 			writer.write(new Integer(cacheSize).toString());
 			for (double per : requestPercentage) {
 				int requests = (int) (per * (double) totalCacheSize);
 				writer.write("," + totalCacheSize + "/" + requests);
-				List<String> testRequests = getRequests(requests);
-				writer.write("," + bf.executeExperiment(testRequests) + ","
-						+ ibf.executeExperiment(testRequests));
-				bf.resetFalsePositive();
-				ibf.resetFalsePositive();
+				int[] testRequests = getRequests(requests);
+				writeFalsePositives(writer, testRequests, bf, ibf, blockedBf);
 			}
 			writer.write("\n");
 			cacheSize += cacheSizeRampUp;
@@ -282,42 +421,113 @@ public class Simulator {
 		writer.close();
 	}
 
+	/**
+	 * Executes the requests on all the bloom filters and writes the false
+	 * positives of each filter followed by the probe throughput of the classic
+	 * and blocked Bloom Filter, the achieved false positive rate of each
+	 * filter and the expected false positive rate of the Bloom Filter.
+	 * 
+	 * @param writer
+	 *            file writer
+	 * @param testRequests
+	 *            block ids of requests to be fired
+	 * @param bf
+	 *            Bloom Filter object
+	 * @param ibf
+	 *            Importance Aware Bloom Filter object
+	 * @param blockedBf
+	 *            Bloom Filter object with blocked layout
+	 * 
+	 * @throws IOException
+	 *             Exception while file writing
+	 */
+	private void writeFalsePositives(FileWriter writer,
+			int[] testRequests, BloomFilter bf, BloomFilter ibf,
+			BloomFilter blockedBf) throws IOException {
+		writer.write("," + bf.executeExperiment(testRequests, dictionary) + ","
+				+ ibf.executeExperiment(testRequests, dictionary) + ","
+				+ blockedBf.executeExperiment(testRequests, dictionary));
+		writer.write("," + String.format("%.0f", bf.getProbeThroughput())
+				+ "," + String.format("%.0f", blockedBf.getProbeThroughput()));
+		writer.write("," + String.format("%.4f", bf.getFalsePositiveRate())
+				+ "," + String.format("%.4f", ibf.getFalsePositiveRate())
+				+ "," + String.format("%.4f", blockedBf.getFalsePositiveRate())
+				+ "," + String.format("%.4f", 
+						bf.getExpectedFalsePositiveRate()));
+		bf.resetFalsePositive();
+		ibf.resetFalsePositive();
+		blockedBf.resetFalsePositive();
+	}
+
 	/**
 	 * Randomly selects data from the data list for requesting.
 	 * 
 	 * @param totalRequests
 	 *            total data needed
-	 * @return List of data from the list
+	 * @return block ids of data from the list
 	 */
-	private List<String> getRequests(int totalRequests) {
-		return getRequests(totalRequests, dataList);
-	}
-
-	private List<String> getRequests(int totalRequests, List<String> dataPool) {
-		List<String> requests = new ArrayList<String>();
-		Random random = new Random();
-		while (requests.size() != totalRequests) {
-			int index = random.nextInt(dataPool.size());
-			String request = dataPool.get(index);
-			requests.add(request);
+	private int[] getRequests(int totalRequests) {
+		int[] requests = new int[totalRequests];
+		Random random = randomStreams.nextStream();
+		for (int i = 0; i < totalRequests; i++) {
+			requests[i] = dataList[random.nextInt(dataCount)];
 		}
 		return requests;
 	}
 
 	/**
 	 * Experiment to compare Summary Cache with N-chance, Robinhood and Greedy
-	 * Forwarding. For n number of clients this method executes all the four
-	 * algorithms for varying cache size and disk size.
+	 * Forwarding. For n number of clients this method executes the selected
+	 * algorithms for varying cache size and disk size. When the cuckoo
+	 * summary variant is selected the Summary Cache variants also report
+	 * summary memory and probe time. Each algorithm of each round
+	 * is a cell executed on a pool of parallelism threads, and the results
+	 * are written in round and algorithm order once the cells finish. At
+	 * most parallelism rounds are in flight, and a failed cell aborts the
+	 * run.
 	 */
 	private void cachingComparison() {
 		FileWriter writer = null;
+		ExecutorService pool = Executors.newFixedThreadPool(parallelism);
 		// headers in result file
-		String[] headers = { "nClients", "GFTicks", "GFCacheMiss",
-				"GFlocalCacheHit","GFglobalCacheHit", "NCTicks", "NCcacheMiss",
-				"NClocalCacheHit", "NCglobalCacheHit", "RHTicks" ,
-				"RHcacheMiss", "RHlocalCacheHit", "RHglobalCacheHit",
-				"SCTicks", "SCcacheMiss", "SClocalCacheHit" ,"SCglobalCacheHit"
-				};
+		List<String> headers = new ArrayList<String>();
+		headers.add("nClients");
+		for (AlgorithmType type : algorithms) {
+			String prefix = type.getPrefix();
+			// spellings of the original result file read by the graphs
+			headers.add(prefix + "Ticks");
+			headers.add(prefix + (type == AlgorithmType.GreedyForwarding
+					? "CacheMiss" : "cacheMiss"));
+			headers.add(prefix + "localCacheHit");
+			headers.add(prefix + "globalCacheHit");
+			if (type == AlgorithmType.SummaryCache
+					|| type == AlgorithmType.SummaryCacheCuckoo) {
+				if (hasSummaryColumns()) {
+					headers.add(prefix + "SummaryBytes");
+					headers.add(prefix + "ProbeNanos");
+				}
+				if (hasFalsePositiveRateColumn()) {
+					headers.add(prefix + "FPRate");
+				}
+			}
+			if (type == AlgorithmType.SummaryCacheCuckoo) {
+				headers.add(prefix + "FailedInserts");
+			}
+			if (arrivalRate > 0) {
+				// queueing of request traces served one at a time
+				headers.add(prefix + "TraceMeanResponse");
+				headers.add(prefix + "TraceP50Response");
+				headers.add(prefix + "TraceP95Response");
+				headers.add(prefix + "TraceP99Response");
+				headers.add(prefix + "TraceMeanQueueing");
+			}
+			if (admissionFilter) {
+				headers.add(prefix + "AdmitTicks");
+				headers.add(prefix + "AdmitCacheMiss");
+				headers.add(prefix + "AdmitLocalCacheHit");
+				headers.add(prefix + "AdmitGlobalCacheHit");
+			}
+		}
 		File resultFile = new File(getFileNameWithoutExt(dataFile)
 				+ "_caching_comparison.csv");
 		try {
@@ -326,17 +536,43 @@ public class Simulator {
 				writer.write(header + ",");
 			}
 			writer.write("\n");
-			System.out.println("Starting Caching Algorithms Comparison");
+			System.out.println("Starting Caching Algorithms Comparison with "
+					+ evictionPolicy + " eviction");
+			List<Integer> rounds = new ArrayList<Integer>();
+			List<List<Future<String>>> cells = 
+					new ArrayList<List<Future<String>>>();
 			int nClients = nClientsLow;
 			while(nClientsRampUp > 0 && nClients <= nClientsHigh) {
-				writer.write("\n" + nClients);
-				cachingComparisonRound(nClients, 0.0, writer);
+				// keep at most parallelism rounds warmed up in memory
+				if (rounds.size() == parallelism) {
+					writeCachingComparisonRound(writer, rounds.remove(0),
+							cells.remove(0));
+				}
+				rounds.add(nClients);
+				cells.add(cachingComparisonRound(nClients, 0.0, pool));
 				nClients += nClientsRampUp;
 			}
+			while (!rounds.isEmpty()) {
+				writeCachingComparisonRound(writer, rounds.remove(0),
+						cells.remove(0));
+			}
 			System.out.println("Ending Caching Algorithms Comparison");
 		} catch (IOException e) {
 			System.err.println(e.getMessage());
+		} catch (InterruptedException e) {
+			System.err.println(e.getMessage());
+		} catch (ExecutionException e) {
+			// abort the run with the trace of the failed cell
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
 		} finally {
+			pool.shutdownNow();
 			try {
 				if (writer != null)
 					writer.close();
@@ -347,54 +583,212 @@ public class Simulator {
 	}
 
 	/**
-	 * This method takes in the number of clients and disk percentage and
-	 * executes the experiment on all the caching algorithms for varying cache
-	 * size. Finally store the results to file.
+	 * Waits for the cells of a round and writes their results in algorithm
+	 * order
+	 * 
+	 * @param writer
+	 *            file writer
+	 * @param nClients
+	 *            total clients in the round
+	 * @param cells
+	 *            results of the round in algorithm order
+	 * 
+	 * @throws IOException
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 *             if a cell failed
+	 */
+	private void writeCachingComparisonRound(FileWriter writer, int nClients,
+			List<Future<String>> cells) throws IOException,
+			InterruptedException, ExecutionException {
+		writer.write("\n" + nClients);
+		for (Future<String> cell : cells) {
+			writer.write(cell.get());
+		}
+	}
+
+	/**
+	 * This method takes in the number of clients and disk percentage, warms
+	 * up the round and submits the experiment of every caching algorithm to
+	 * the pool.
 	 * 
 	 * @param nClients
 	 *            total clients in the system
 	 * @param per
 	 *            percentage disk to be used compared to total cache size
-	 * @param writer
-	 *            file writer
+	 * @param pool
+	 *            executor of the caching comparison cells
 	 * 
-	 * @throws IOException
+	 * @return result of each algorithm in algorithm order
 	 */
-	private void cachingComparisonRound(int nClients, double per,
-			FileWriter writer) throws IOException {
-		List<String> reqPool = randomWarmup(cacheSizeLow, cacheSizeLow, 
-				totalRequests, nClients);
-		for(AlgorithmType type : AlgorithmType.values()) {
-			double ticksPerRequest = 0.0;
-			double cacheMiss = 0.0;
-			double localCacheHit = 0.0;
-			double globalCacheHit = 0.0;
-			CachingAlgorithm ca = CachingAlgorithmFactory
-					.createCachingAlgorithm(type, nClients, cacheSizeLow,
-							cacheSizeLow, totalRequests, cacheReferenceTicks,
-							diskToCacheTicks, networkHopTicks);
-			if (ca != null) {
-				ca.warmup(clientCaches, serverCache, serverDisk);
-				ca.executeExperiment(reqPool);
-				ticksPerRequest += ca.getTicksPerRequest();
-				localCacheHit += ca.getLocalCacheHit();
-				globalCacheHit += ca.getGlobalCacheHit();
-				cacheMiss += ca.getCacheMiss();
-			}
-			writer.write(","
-			+ String.format("%.2f", ticksPerRequest)
+	private List<Future<String>> cachingComparisonRound(final int nClients,
+			double per, ExecutorService pool) {
+		final WarmupContents contents = randomWarmup(cacheSizeLow, 
+				cacheSizeLow, totalRequests, nClients);
+		List<Future<String>> cells = new ArrayList<Future<String>>();
+		for(final AlgorithmType type : algorithms) {
+			// split on this thread so the cell streams do not depend on 
+			// the order in which cells run
+			final RandomStreams cellStreams = randomStreams.split();
+			cells.add(pool.submit(new Callable<String>() {
+				@Override
+				public String call() {
+					return cachingComparisonCell(type, nClients, contents,
+							cellStreams);
+				}
+			}));
+		}
+		return cells;
+	}
+
+	/**
+	 * Executes one caching algorithm of a round on the warm up contents
+	 * 
+	 * @param type
+	 *            caching algorithm to be executed
+	 * @param nClients
+	 *            total clients in the system
+	 * @param contents
+	 *            warm up contents of the round
+	 * @param cellStreams
+	 *            random streams of the cell
+	 * 
+	 * @return result columns of the algorithm
+	 */
+	private String cachingComparisonCell(AlgorithmType type, int nClients,
+			WarmupContents contents, RandomStreams cellStreams) {
+		CachingAlgorithm ca = runCachingAlgorithm(type, nClients,
+				contents, false, cellStreams.split());
+		String result = formatCachingResult(ca);
+		if (hasSummaryColumns() && ca instanceof SummaryCache) {
+			result += ","
+			+ String.format("%.0f", ((SummaryCache) ca).getSummaryBytes())
+			+ ","
+			+ String.format("%.1f", ((SummaryCache) ca).getProbeNanos());
+		}
+		if (hasFalsePositiveRateColumn() && ca instanceof SummaryCache) {
+			result += "," + String.format("%.4f", 
+					((SummaryCache) ca).getFalsePositiveRate());
+		}
+		if (type == AlgorithmType.SummaryCacheCuckoo) {
+			result += "," + (ca == null ? 0 
+					: ((SummaryCache) ca).getFailedInserts());
+		}
+		if (ca != null && ca.getEventSimulator() != null) {
+			DiscreteEventSimulator simulator = ca.getEventSimulator();
+			result += ","
+			+ String.format("%.2f", simulator.getMeanResponseTime())
+			+ ","
+			+ String.format("%.2f", simulator.getResponseTimePercentile(50))
+			+ ","
+			+ String.format("%.2f", simulator.getResponseTimePercentile(95))
 			+ ","
-			+ String.format("%.2f", cacheMiss)
+			+ String.format("%.2f", simulator.getResponseTimePercentile(99))
 			+ ","
-			+ String.format("%.2f", localCacheHit)
-			+ "," 
-			+ String.format("%.2f", globalCacheHit));
+			+ String.format("%.2f", simulator.getMeanQueueingDelay());
+		}
+		if (admissionFilter) {
+			result += formatCachingResult(runCachingAlgorithm(type, nClients,
+					contents, true, cellStreams.split()));
+		}
+		return result;
+	}
+
+	/**
+	 * Summary memory and probe time are reported only next to the cuckoo
+	 * summary variant, so the default result file keeps its columns
+	 * 
+	 * @return true if summary columns are written
+	 */
+	private boolean hasSummaryColumns() {
+		return algorithms.contains(AlgorithmType.SummaryCacheCuckoo);
+	}
+
+	/**
+	 * Achieved summary false positive rate is reported next to the cuckoo
+	 * summary variant and whenever the filters are sized by a target rate
+	 * or a memory budget, so the sizing can be checked against it
+	 * 
+	 * @return true if summary false positive rate columns are written
+	 */
+	private boolean hasFalsePositiveRateColumn() {
+		return hasSummaryColumns() || targetFalsePositiveRate > 0
+				|| filterMemoryBudget > 0;
+	}
+
+	/**
+	 * Executes one caching algorithm on warm up contents
+	 * 
+	 * @param type
+	 *            caching algorithm to be executed
+	 * @param nClients
+	 *            total clients in the system
+	 * @param contents
+	 *            warm up contents and requests fired on the clients
+	 * @param admission
+	 *            true if client caches use the admission filter
+	 * @param streams
+	 *            random streams of the algorithm
+	 * 
+	 * @return executed algorithm, null if type is unknown
+	 */
+	private CachingAlgorithm runCachingAlgorithm(AlgorithmType type,
+			int nClients, WarmupContents contents, boolean admission,
+			RandomStreams streams) {
+		CachingAlgorithm ca = CachingAlgorithmFactory
+				.createCachingAlgorithm(type, nClients, cacheSizeLow,
+						cacheSizeLow, totalRequests, cacheReferenceTicks,
+						diskToCacheTicks, networkHopTicks);
+		if (ca != null) {
+			ca.setHashFamily(hashFamily);
+			ca.setFilterSizing(targetFalsePositiveRate,
+					filterMemoryBudget);
+			ca.setBlockedBloomFilter(blockedBloomFilter);
+			ca.setEvictionPolicy(evictionPolicy);
+			ca.setAdmissionFilter(admission);
+			ca.setDictionary(dictionary);
+			ca.setStorageType(storageType, diskStorageType);
+			ca.setRandomStreams(streams);
+			ca.setArrivalRate(arrivalRate);
+			ca.warmup(contents);
+			ca.executeExperiment(contents.getRequests());
 		}
+		return ca;
+	}
+
+	/**
+	 * Formats ticks, cache miss and cache hits per request of an algorithm
+	 * 
+	 * @param ca
+	 *            executed algorithm, null gives zeros
+	 * 
+	 * @return result columns
+	 */
+	private String formatCachingResult(CachingAlgorithm ca) {
+		double ticksPerRequest = 0.0;
+		double cacheMiss = 0.0;
+		double localCacheHit = 0.0;
+		double globalCacheHit = 0.0;
+		if (ca != null) {
+			ticksPerRequest += ca.getTicksPerRequest();
+			localCacheHit += ca.getLocalCacheHit();
+			globalCacheHit += ca.getGlobalCacheHit();
+			cacheMiss += ca.getCacheMiss();
+		}
+		return ","
+		+ String.format("%.2f", ticksPerRequest)
+		+ ","
+		+ String.format("%.2f", cacheMiss)
+		+ ","
+		+ String.format("%.2f", localCacheHit)
+		+ "," 
+		+ String.format("%.2f", globalCacheHit);
 	}
 
 	/**
 	 * This method creates the random distribution of client caches, server
-	 * cache and server disk
+	 * cache and server disk. Caches are filled with the data of random disk
+	 * slots, a slot at most once in each cache.
 	 * 
 	 * @param clientCacheSize
 	 *            cache size of client
@@ -405,54 +799,54 @@ public class Simulator {
 	 * @param nClients
 	 *            total clients in the system
 	 * 
-	 * @return List of requests
+	 * @return warm up contents and requests of the round
 	 */
-	private List<String> randomWarmup(int clientCacheSize, int serverCacheSize,
-			int serverDiskSize, int nClients) {
-		int index = 0;
-		List<Block> contents = new ArrayList<Block>();
-		List<String> requests = new ArrayList<String>();
-		clientCaches = new Block[nClients][clientCacheSize];
-		serverCache = new Block[serverCacheSize];
-		serverDisk = new Block[serverDiskSize];
-		Random random = new Random();
+	private WarmupContents randomWarmup(int clientCacheSize,
+			int serverCacheSize, int serverDiskSize, int nClients) {
+		int[] requests = new int[serverDiskSize + nClients * clientCacheSize
+				+ serverCacheSize];
+		int nRequests = 0;
+		int[][] clientCacheSlots = new int[nClients][];
+		int[] serverDiskIds = new int[serverDiskSize];
+		Random random = randomStreams.nextStream();
 		// server disk data
-		while (contents.size() != serverDiskSize) {
-			Block block = new Block(dataList.get(random.nextInt((dataList
-					.size()))));
-			if (!contents.contains(block)) {
-				contents.add(block);
-				requests.add(block.getData());
-				serverDisk[index++] = block;
-			}
+		for (int i = 0; i < serverDiskSize; i++) {
+			serverDiskIds[i] = dataList[random.nextInt(dataCount)];
+			requests[nRequests++] = serverDiskIds[i];
 		}
 		// client cache data
 		for (int i = 0; i < nClients; i++) {
-			index = 0;
-			contents.clear();
-			while (contents.size() != clientCacheSize) {
-				Block block = serverDisk[random.nextInt(serverDiskSize)];
-				if (!contents.contains(block)) {
-					contents.add(block);
-					requests.add(block.getData());
-					block.isCached = true;
-					clientCaches[i][index++] = block;
-				}
+			clientCacheSlots[i] = randomDiskSlots(clientCacheSize,
+					serverDiskSize, random);
+			for (int slot : clientCacheSlots[i]) {
+				requests[nRequests++] = serverDiskIds[slot];
 			}
 		}
-		index = 0;
-		contents.clear();
 		// server cache data
-		while (contents.size() != serverCacheSize) {
-			Block block = serverDisk[random.nextInt(serverDiskSize)];
-			if (!contents.contains(block)) {
-				contents.add(block);
-				requests.add(block.getData());
-				block.isCached = true;
-				serverCache[index++] = block;
+		int[] serverCacheSlots = randomDiskSlots(serverCacheSize,
+				serverDiskSize, random);
+		for (int slot : serverCacheSlots) {
+			requests[nRequests++] = serverDiskIds[slot];
+		}
+		return new WarmupContents(clientCacheSlots, serverCacheSlots,
+				serverDiskIds, requests);
+	}
+
+	/**
+	 * Picks distinct random disk slots for a cache
+	 */
+	private int[] randomDiskSlots(int cacheSize, int serverDiskSize,
+			Random random) {
+		int[] slots = new int[cacheSize];
+		Set<Integer> picked = new HashSet<Integer>();
+		int index = 0;
+		while (index != cacheSize) {
+			int slot = random.nextInt(serverDiskSize);
+			if (picked.add(slot)) {
+				slots[index++] = slot;
 			}
 		}
-		return requests;
+		return slots;
 	}
 
 	/**
@@ -475,18 +869,30 @@ public class Simulator {
 			int k = 0;
 			for (int j = i * clientCacheSize; j < (clientCacheSize * (i + 1));
 					j++) {
-				clientCaches[i][k++] = new Block(dataList.get(j));
+				clientCaches[i][k++] = newBlock(j);
 			}
 		}
 		// copy data to server cache
 		for (int i = serverCacheStartIndex; i < serverCacheEndIndex; i++) {
-			serverCache[serverCacheIndex++] = new Block(dataList.get(i));
+			serverCache[serverCacheIndex++] = newBlock(i);
 		}
 
 		// copy data to server disk
 		for (int i = serverCacheEndIndex; i < serverCacheEndIndex
 				+ serverDiskSize; i++) {
-			serverDisk[serverDiskIndex++] = new Block(dataList.get(i));
+			serverDisk[serverDiskIndex++] = newBlock(i);
 		}
 	}
+
+	/**
+	 * Creates block of the data read at a line of the data file
+	 * 
+	 * @param line
+	 *            line of data file
+	 * @return block of data
+	 */
+	private Block newBlock(int line) {
+		int id = dataList[line];
+		return new Block(id, dictionary.decode(id));
+	}
 }
@@ -0,0 +1,49 @@
+package simulation;
+
+/**
+ * Block built for a disk slot of a slot storage, keeping its recirculation 
+ * count in the record of the slot
+ * 
+ * @author Shridhar Bhalekar
+ *
+ */
+public class SlotBlock extends Block {
+	
+	/** Storage of the slot */
+	private SlotStorage storage;
+	
+	/** Slot of the block */
+	private int slot;
+	
+	/**
+	 * Creates block of a slot
+	 * 
+	 * @param id block id stored in the slot
+	 * @param data data of the block
+	 * @param storage storage of the slot
+	 * @param slot slot of storage
+	 */
+	SlotBlock(int id, String data, SlotStorage storage, int slot) {
+		super(id, data);
+		this.storage = storage;
+		this.slot = slot;
+	}
+	
+	public SlotStorage getStorage() {
+		return storage;
+	}
+	
+	public int getSlot() {
+		return slot;
+	}
+	
+	@Override
+	public int getRecirculationCount() {
+		return storage.getRecirculationCount(slot);
+	}
+	
+	@Override
+	public void setRecirculationCount(int recirculationCount) {
+		storage.setRecirculationCount(slot, recirculationCount);
+	}
+}
@@ -0,0 +1,157 @@
+package simulation;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from block id to storage slot. Ids and slots are kept
+ * in two int arrays probed linearly, so lookups neither box the id nor
+ * follow pointers. Removal shifts the following entries back instead of
+ * leaving deleted markers. The table is sized once for the storage and kept
+ * at most half full. Entries are read and written through the entry
+ * accessors, so sub classes may keep them outside the arrays.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class SlotIndex {
+
+	/** Id marking an empty entry */
+	protected static final int EMPTY = -1;
+
+	/** Id of each entry */
+	private int[] keys;
+
+	/** Slot of each entry */
+	private int[] values;
+
+	/** Mask reducing a hash to an entry */
+	protected int mask;
+
+	/**
+	 * Creates index for a storage
+	 *
+	 * @param storageSize maximum number of ids in the index
+	 */
+	public SlotIndex(int storageSize) {
+		this(storageSize, true);
+	}
+	
+	/**
+	 * Creates index for a storage, leaving the entry arrays to sub classes
+	 * keeping the entries elsewhere
+	 *
+	 * @param storageSize maximum number of ids in the index
+	 * @param allocate true to allocate the entry arrays
+	 */
+	protected SlotIndex(int storageSize, boolean allocate) {
+		int capacity = Integer.highestOneBit(Math.max(2, 2 * storageSize - 1))
+				<< 1;
+		mask = capacity - 1;
+		if(allocate) {
+			keys = new int[capacity];
+			values = new int[capacity];
+			Arrays.fill(keys, EMPTY);
+		}
+	}
+
+	/**
+	 * Get the slot of an id
+	 *
+	 * @param id block id
+	 * @return slot or -1
+	 */
+	public int get(int id) {
+		for(int i = position(id); key(i) != EMPTY; i = (i + 1) & mask) {
+			if(key(i) == id) {
+				return value(i);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Set the slot of an id
+	 *
+	 * @param id block id
+	 * @param slot storage slot
+	 */
+	public void put(int id, int slot) {
+		int i = position(id);
+		while(key(i) != EMPTY && key(i) != id) {
+			i = (i + 1) & mask;
+		}
+		setEntry(i, id, slot);
+	}
+
+	/**
+	 * Remove an id from the index
+	 *
+	 * @param id block id
+	 */
+	public void remove(int id) {
+		int i = position(id);
+		while(key(i) != id) {
+			if(key(i) == EMPTY) {
+				return;
+			}
+			i = (i + 1) & mask;
+		}
+		// move back entries whose probe sequence passes the freed entry
+		int next = (i + 1) & mask;
+		while(key(next) != EMPTY) {
+			int home = position(key(next));
+			if(((next - home) & mask) >= ((next - i) & mask)) {
+				setEntry(i, key(next), value(next));
+				i = next;
+			}
+			next = (next + 1) & mask;
+		}
+		clearEntry(i);
+	}
+
+	/**
+	 * Get the id of an entry
+	 *
+	 * @param i entry
+	 * @return id or EMPTY
+	 */
+	protected int key(int i) {
+		return keys[i];
+	}
+
+	/**
+	 * Get the slot of an entry
+	 *
+	 * @param i entry
+	 * @return storage slot
+	 */
+	protected int value(int i) {
+		return values[i];
+	}
+
+	/**
+	 * Set the id and slot of an entry
+	 *
+	 * @param i entry
+	 * @param id block id
+	 * @param slot storage slot
+	 */
+	protected void setEntry(int i, int id, int slot) {
+		keys[i] = id;
+		values[i] = slot;
+	}
+
+	/**
+	 * Mark an entry empty
+	 *
+	 * @param i entry
+	 */
+	protected void clearEntry(int i) {
+		keys[i] = EMPTY;
+	}
+
+	protected int position(int id) {
+		int hash = id * 0x9e3779b9;
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+}
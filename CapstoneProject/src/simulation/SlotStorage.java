@@ -0,0 +1,112 @@
+package simulation;
+
+/**
+ * Storage keeping a record of two ints per slot instead of block objects.
+ * Blocks are built on demand from the dictionary. A disk slot records the 
+ * block id and the recirculation count, and blocks built for it read and 
+ * write the count in the record. A cache slot records the block id and the
+ * disk slot the block was taken from, and gives out the block of that disk
+ * slot, so a cached block shares its state with its disk slot as a block
+ * object shared by object storages does.
+ * 
+ * Disk slots are not meant to be replaced while blocks built for them are
+ * still referenced, as the blocks would then read the record of the new block.
+ * 
+ * @author Shridhar Bhalekar
+ *
+ */
+public abstract class SlotStorage extends Storage {
+	
+	/** Disk holding the state of the stored blocks, this storage for a disk */
+	private SlotStorage disk;
+	
+	/** Dictionary giving the data of the stored ids */
+	private BlockDictionary dictionary;
+	
+	/**
+	 * Creates object with storage size
+	 * 
+	 * @param storageSize number of slots
+	 * @param slots empty index sized for the storage
+	 * @param dictionary dictionary giving the data of block ids
+	 * @param disk disk the cached blocks are taken from, null for a disk
+	 */
+	protected SlotStorage(int storageSize, SlotIndex slots, 
+			BlockDictionary dictionary, SlotStorage disk) {
+		super(storageSize, slots);
+		this.dictionary = dictionary;
+		this.disk = (disk == null) ? this : disk;
+	}
+	
+	@Override
+	public Block getBlock(int index) {
+		int id = getId(index);
+		if(id == -1) {
+			return null;
+		}
+		if(disk != this) {
+			return disk.getBlock(getValue(index));
+		}
+		return new SlotBlock(id, dictionary.decode(id), this, index);
+	}
+	
+	@Override
+	protected void store(int index, Block block) {
+		if(block == null) {
+			setRecord(index, -1, 0);
+		} else if(disk == this) {
+			setRecord(index, block.getId(), block.getRecirculationCount());
+		} else if(block instanceof SlotBlock 
+				&& ((SlotBlock) block).getStorage() == disk) {
+			setRecord(index, block.getId(), ((SlotBlock) block).getSlot());
+		} else {
+			throw new IllegalArgumentException("Block " + block.getId() 
+					+ " was not taken from the disk of the storage");
+		}
+	}
+	
+	/**
+	 * Gets the recirculation count recorded in a disk slot
+	 * 
+	 * @param index slot of storage
+	 * @return recirculation count
+	 */
+	int getRecirculationCount(int index) {
+		return getValue(index);
+	}
+	
+	/**
+	 * Records the recirculation count of a disk slot
+	 * 
+	 * @param index slot of storage
+	 * @param recirculationCount new recirculation count
+	 */
+	void setRecirculationCount(int index, int recirculationCount) {
+		setValue(index, recirculationCount);
+	}
+	
+	/**
+	 * Gets the second int of the record of a slot
+	 * 
+	 * @param index slot of storage
+	 * @return recirculation count for a disk, disk slot for a cache
+	 */
+	protected abstract int getValue(int index);
+	
+	/**
+	 * Sets the second int of the record of a slot
+	 * 
+	 * @param index slot of storage
+	 * @param value recirculation count for a disk, disk slot for a cache
+	 */
+	protected abstract void setValue(int index, int value);
+	
+	/**
+	 * Sets the record of a slot
+	 * 
+	 * @param index slot of storage
+	 * @param id block id, -1 for an empty slot
+	 * @param value recirculation count for a disk, disk slot for a cache
+	 */
+	protected abstract void setRecord(int index, int id, int value);
+}
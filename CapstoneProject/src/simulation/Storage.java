@@ -1,13 +1,25 @@
 package simulation;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
 /**
- * Represents storage component of client and server
+ * Represents storage component of client and server. Along with the blocks
+ * the storage keeps an index from block id to slot so that lookups take
+ * constant time. Sub classes decide how the slots themselves are laid out.
  * @author Shridhar Bhalekar
  *
  */
-public class Storage {
-	/** Storage blocks to be allocated */
-	protected Block[] storageSpace;
+public abstract class Storage {
+	/** Number of slots in storage */
+	protected int storageSize;
+	
+	/** Slot of each stored id, lowest slot if id is stored twice */
+	private SlotIndex slots;
+	
+	/** All slots of ids stored more than once */
+	private Map<Integer, TreeSet<Integer>> duplicateSlots;
 	
 	/**
 	 * Creates object with storage size
@@ -15,22 +27,29 @@ public class Storage {
 	 * @param storageSize
 	 */
 	public Storage(int storageSize) {
-		storageSpace = new Block[storageSize];
+		this(storageSize, new SlotIndex(storageSize));
+	}
+	
+	/**
+	 * Creates object with storage size and the index of its slots
+	 * 
+	 * @param storageSize
+	 * @param slots empty index sized for the storage
+	 */
+	protected Storage(int storageSize, SlotIndex slots) {
+		this.storageSize = storageSize;
+		this.slots = slots;
+		duplicateSlots = new HashMap<Integer, TreeSet<Integer>>();
 	}
 	
 	/**
 	 * Lookup the data in storage array
 	 * 
-	 * @param data to be looked up
-	 * @return true/false
+	 * @param id block id of data to be looked up
+	 * @return index of data or -1
 	 */
-	public int lookup(String data) {
-		for(int i = 0; i < storageSpace.length; i++) {
-			if(storageSpace[i].isEqual(data)) {
-				return i;
-			}
-		}
-		return -1;
+	public int lookup(int id) {
+		return slots.get(id);
 	}
 	
 	/**
@@ -39,15 +58,93 @@ public class Storage {
 	 */
 	public void fillStorageBlocks(Block[] contents) {
 		for(int i = 0; i < contents.length; i++) {
-			storageSpace[i] = contents[i];
+			update(i, contents[i]);
+		}
+	}
+	
+	/**
+	 * Takes in the block ids of the contents and fills the underlying storage
+	 * with new blocks of the ids
+	 * @param ids block ids to be filled in storage
+	 * @param dictionary dictionary giving the data of the ids
+	 */
+	public void fillStorageIds(int[] ids, BlockDictionary dictionary) {
+		for(int i = 0; i < ids.length; i++) {
+			update(i, new Block(ids[i], dictionary.decode(ids[i])));
 		}
 	}
 	
 	public void update(int index, Block block) {
-		storageSpace[index] = block;
+		int replaced = getId(index);
+		if(replaced != -1) {
+			removeSlot(replaced, index);
+		}
+		store(index, block);
+		if(block != null) {
+			addSlot(block.getId(), index);
+		}
+	}
+	
+	public int size() {
+		return storageSize;
 	}
 	
-	public Block getBlock(int index) {
-		return storageSpace[index];
+	/**
+	 * Get the block stored in a slot
+	 * 
+	 * @param index slot of storage
+	 * @return block or null
+	 */
+	public abstract Block getBlock(int index);
+	
+	/**
+	 * Get the block id stored in a slot without referencing the block
+	 * 
+	 * @param index slot of storage
+	 * @return block id or -1 if slot is empty
+	 */
+	public abstract int getId(int index);
+	
+	/**
+	 * Puts a block in a slot, the index is kept by update
+	 * 
+	 * @param index slot of storage
+	 * @param block block to be stored or null
+	 */
+	protected abstract void store(int index, Block block);
+	
+	/**
+	 * Adds the slot of data to the index
+	 */
+	private void addSlot(int id, int index) {
+		int slot = slots.get(id);
+		if(slot == -1) {
+			slots.put(id, index);
+			return;
+		}
+		TreeSet<Integer> dataSlots = duplicateSlots.get(id);
+		if(dataSlots == null) {
+			dataSlots = new TreeSet<Integer>();
+			dataSlots.add(slot);
+			duplicateSlots.put(id, dataSlots);
+		}
+		dataSlots.add(index);
+		slots.put(id, dataSlots.first());
+	}
+	
+	/**
+	 * Removes the slot of data from the index
+	 */
+	private void removeSlot(int id, int index) {
+		TreeSet<Integer> dataSlots = duplicateSlots.get(id);
+		if(dataSlots == null) {
+			slots.remove(id);
+			return;
+		}
+		dataSlots.remove(index);
+		slots.put(id, dataSlots.first());
+		if(dataSlots.size() == 1) {
+			duplicateSlots.remove(id);
+		}
 	}
 }
@@ -0,0 +1,53 @@
+package simulation;
+
+/**
+ * Factory pattern to create objects of Storage class
+ * @author Shridhar Bhalekar
+ */
+public class StorageFactory {
+
+	/**
+	 * Method which creates object of appropriate Storage implementation
+	 * according to type.
+	 * 
+	 * @param type type of Storage
+	 * @param storageSize number of slots
+	 * @param dictionary dictionary giving the data of block ids for storages
+	 * keeping only ids
+	 * @param disk server disk the cached blocks are taken from, null when
+	 * creating the disk itself
+	 * 
+	 * @return Storage object
+	 */
+	public static Storage createStorage(StorageType type, int storageSize,
+			BlockDictionary dictionary, Storage disk) {
+		Storage storage = null;
+		switch(type) {
+		case ObjectArray:
+			storage = new ObjectStorage(storageSize);
+			break;
+		case StructOfArrays:
+			storage = new StructOfArraysStorage(storageSize, dictionary, 
+					slotDisk(type, disk));
+			break;
+		case OffHeap:
+			storage = new OffHeapStorage(storageSize, dictionary, 
+					slotDisk(type, disk));
+			break;
+		default:
+			break;
+		}
+		return storage;
+	}
+	
+	/**
+	 * Gets the disk of a slot storage, which must keep slot records as well
+	 */
+	private static SlotStorage slotDisk(StorageType type, Storage disk) {
+		if(disk != null && !(disk instanceof SlotStorage)) {
+			throw new IllegalArgumentException(type + " cache storage needs a"
+					+ " StructOfArrays or OffHeap disk");
+		}
+		return (SlotStorage) disk;
+	}
+}
@@ -0,0 +1,14 @@
+package simulation;
+
+/**
+ * Layouts of the storage slots which can be selected for client and server
+ * storage. StructOfArrays and OffHeap caches need a StructOfArrays or OffHeap
+ * server disk.
+ * 
+ * @author Shridhar Bhalekar
+ */
+public enum StorageType {
+	ObjectArray,
+	StructOfArrays,
+	OffHeap
+}
@@ -0,0 +1,57 @@
+package simulation;
+
+import java.util.Arrays;
+
+/**
+ * Storage laying out the slot records as parallel int arrays on the heap. 
+ * Scans over the slots and lookups of the id in a slot read contiguous 
+ * memory instead of following a block reference per slot, and the storage
+ * holds no block objects for the garbage collector to trace.
+ * 
+ * @author Shridhar Bhalekar
+ *
+ */
+public class StructOfArraysStorage extends SlotStorage {
+	
+	/** Block id of each slot, -1 for empty slots */
+	private int[] ids;
+	
+	/** Recirculation count of each disk slot, disk slot of each cache slot */
+	private int[] values;
+	
+	/**
+	 * Creates object with storage size
+	 * 
+	 * @param storageSize number of slots
+	 * @param dictionary dictionary giving the data of block ids
+	 * @param disk disk the cached blocks are taken from, null for a disk
+	 */
+	public StructOfArraysStorage(int storageSize, BlockDictionary dictionary,
+			SlotStorage disk) {
+		super(storageSize, new SlotIndex(storageSize), dictionary, disk);
+		ids = new int[storageSize];
+		values = new int[storageSize];
+		Arrays.fill(ids, -1);
+	}
+	
+	@Override
+	public int getId(int index) {
+		return ids[index];
+	}
+	
+	@Override
+	protected int getValue(int index) {
+		return values[index];
+	}
+	
+	@Override
+	protected void setValue(int index, int value) {
+		values[index] = value;
+	}
+	
+	@Override
+	protected void setRecord(int index, int id, int value) {
+		ids[index] = id;
+		values[index] = value;
+	}
+}
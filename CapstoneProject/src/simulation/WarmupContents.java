@@ -0,0 +1,58 @@
+package simulation;
+
+/**
+ * Warm up contents of one experiment round: the block ids of the server disk,
+ * the disk slots whose blocks are placed in client caches and server cache,
+ * and the requests to be fired. Contents hold no blocks and are not changed
+ * by the caching algorithms, so every algorithm executed on the round builds
+ * its own blocks from the same contents.
+ * 
+ * @author Shridhar Bhalekar
+ *
+ */
+public class WarmupContents {
+
+	/** Disk slots of the data for client caches */
+	private int[][] clientCaches;
+
+	/** Disk slots of the data for server cache */
+	private int[] serverCache;
+
+	/** Block ids of the data for server disk */
+	private int[] serverDisk;
+
+	/** Block ids of requests */
+	private int[] requests;
+
+	/**
+	 * Creates warm up contents of a round
+	 * 
+	 * @param clientCaches disk slots of the data for client caches
+	 * @param serverCache disk slots of the data for server cache
+	 * @param serverDisk block ids of the data for server disk
+	 * @param requests block ids of requests
+	 */
+	public WarmupContents(int[][] clientCaches, int[] serverCache,
+			int[] serverDisk, int[] requests) {
+		this.clientCaches = clientCaches;
+		this.serverCache = serverCache;
+		this.serverDisk = serverDisk;
+		this.requests = requests;
+	}
+
+	public int[][] getClientCaches() {
+		return clientCaches;
+	}
+
+	public int[] getServerCache() {
+		return serverCache;
+	}
+
+	public int[] getServerDisk() {
+		return serverDisk;
+	}
+
+	public int[] getRequests() {
+		return requests;
+	}
+}
@@ -0,0 +1,112 @@
+package simulation;
+
+/**
+ * Hash family based on xxHash64. Characters of the data are hashed directly
+ * as UTF-16 code units so no byte array is created per hash.
+ *
+ * @author Shridhar Bhalekar
+ *
+ */
+public class XXHashFamily extends DoubleHashingFamily {
+
+	private static final long P1 = 0x9E3779B185EBCA87L;
+
+	private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+
+	private static final long P3 = 0x165667B19E3779F9L;
+
+	private static final long P4 = 0x85EBCA77C2B2AE63L;
+
+	private static final long P5 = 0x27D4EB2F165667C5L;
+
+	/** Seed of the hash function */
+	private final long seed;
+
+	/**
+	 * Creates xxHash family with default seed
+	 */
+	public XXHashFamily() {
+		this(0);
+	}
+
+	/**
+	 * Creates xxHash family with given seed
+	 *
+	 * @param seed seed of hash function
+	 */
+	public XXHashFamily(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Computes xxHash64 of data
+	 *
+	 * @param data to be hashed
+	 * @return hashed value
+	 */
+	public long hash64(String data) {
+		int length = data.length();
+		int i = 0;
+		long hash;
+		// 32 byte stripes
+		if(length >= 16) {
+			long v1 = seed + P1 + P2;
+			long v2 = seed + P2;
+			long v3 = seed;
+			long v4 = seed - P1;
+			for(; i + 16 <= length; i += 16) {
+				v1 = round(v1, getLong(data, i));
+				v2 = round(v2, getLong(data, i + 4));
+				v3 = round(v3, getLong(data, i + 8));
+				v4 = round(v4, getLong(data, i + 12));
+			}
+			hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7)
+					+ Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+			hash = mergeRound(hash, v1);
+			hash = mergeRound(hash, v2);
+			hash = mergeRound(hash, v3);
+			hash = mergeRound(hash, v4);
+		} else {
+			hash = seed + P5;
+		}
+		hash += 2L * length;
+		// 8 byte words
+		for(; i + 4 <= length; i += 4) {
+			hash ^= round(0, getLong(data, i));
+			hash = Long.rotateLeft(hash, 27) * P1 + P4;
+		}
+		// 4 byte word
+		if(i + 2 <= length) {
+			long word = (data.charAt(i) & 0xFFFFL)
+					| ((data.charAt(i + 1) & 0xFFFFL) << 16);
+			hash ^= word * P1;
+			hash = Long.rotateLeft(hash, 23) * P2 + P3;
+			i += 2;
+		}
+		// last character as two bytes
+		if(i < length) {
+			char ch = data.charAt(i);
+			hash ^= (ch & 0xFFL) * P5;
+			hash = Long.rotateLeft(hash, 11) * P1;
+			hash ^= ((ch >>> 8) & 0xFFL) * P5;
+			hash = Long.rotateLeft(hash, 11) * P1;
+		}
+		hash ^= hash >>> 33;
+		hash *= P2;
+		hash ^= hash >>> 29;
+		hash *= P3;
+		hash ^= hash >>> 32;
+		return hash;
+	}
+
+	private static long round(long acc, long input) {
+		acc += input * P2;
+		acc = Long.rotateLeft(acc, 31);
+		return acc * P1;
+	}
+
+	private static long mergeRound(long acc, long value) {
+		acc ^= round(0, value);
+		return acc * P1 + P4;
+	}
+}